@@ -0,0 +1,65 @@
+package com.example.ufc.config;
+
+import com.example.ufc.search.analysis.Analyzer;
+import com.example.ufc.search.analysis.BulgarianStemFilter;
+import com.example.ufc.search.analysis.LowercaseFilter;
+import com.example.ufc.search.analysis.StopwordFilter;
+import com.example.ufc.search.analysis.TransliterationFilter;
+import com.example.ufc.search.analysis.UnicodeNormalizationFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class SearchConfig {
+
+    /**
+     * Text analysis shared by indexing and querying. Order matters: stopwords and the stemmer
+     * work on normalized Cyrillic, and transliteration must come last.
+     */
+    @Bean
+    public Analyzer searchAnalyzer() {
+        List<String> stopwords = new ArrayList<>(StopwordFilter.BULGARIAN_STOPWORDS);
+        stopwords.addAll(StopwordFilter.ENGLISH_STOPWORDS);
+
+        return new Analyzer(List.of(
+                new LowercaseFilter(),
+                new UnicodeNormalizationFilter(),
+                new StopwordFilter(stopwords),
+                new BulgarianStemFilter(),
+                new TransliterationFilter()
+        ));
+    }
+
+    /**
+     * Suggestions match raw word prefixes as they are typed, so no stopwords or stemming here;
+     * transliteration still lets "хаб" and "khab" find the same entries.
+     */
+    @Bean
+    public Analyzer suggestionAnalyzer() {
+        return new Analyzer(List.of(
+                new LowercaseFilter(),
+                new UnicodeNormalizationFilter(),
+                new TransliterationFilter()
+        ));
+    }
+
+    /**
+     * Runs the per-type sub-searches of an "all" search. Bounded on both threads and queue so a burst
+     * of searches sheds work (reported as partial results) instead of piling up.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor searchExecutor(@Value("${search.executor.pool-size:8}") int poolSize,
+                                                 @Value("${search.executor.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("search-");
+        return executor;
+    }
+}
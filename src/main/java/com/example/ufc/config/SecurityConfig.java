@@ -103,7 +103,7 @@ public class SecurityConfig {
                         // Info pages - public access
                         .requestMatchers("/info/**").permitAll()
                         // Search functionality
-                        .requestMatchers("/search").permitAll()
+                        .requestMatchers("/search", "/search/suggest").permitAll()
                         // Forum - public viewing, authenticated for creation
                         .requestMatchers("/forum", "/forum/category/**", "/forum/topic/{id:[0-9]+}").permitAll()
                         .requestMatchers("/forum/topic/new").authenticated()
@@ -1,16 +1,25 @@
 package com.example.ufc.controller;
 
+import com.example.ufc.dto.CommentTotalsDto;
+import com.example.ufc.dto.RecentTopicDto;
+import com.example.ufc.dto.TopicTotalsDto;
+import com.example.ufc.dto.TopicViewDto;
 import com.example.ufc.dto.UserUpdateDto;
 import com.example.ufc.entity.User;
-import com.example.ufc.entity.Topic;
 import com.example.ufc.entity.TopicCategory;
 import com.example.ufc.entity.Post;
 import com.example.ufc.entity.Comment;
+import com.example.ufc.service.ForumStats;
+import com.example.ufc.service.ForumStatsService;
 import com.example.ufc.service.UserService;
 import com.example.ufc.service.TopicService;
 import com.example.ufc.service.PostService;
 import com.example.ufc.service.CommentService;
+import com.example.ufc.util.Constants;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -35,14 +44,17 @@ public class AdminController {
     private final TopicService topicService;
     private final PostService postService;
     private final CommentService commentService;
+    private final ForumStatsService forumStatsService;
 
     @Autowired
     public AdminController(UserService userService, TopicService topicService,
-                          PostService postService, CommentService commentService) {
+                          PostService postService, CommentService commentService,
+                          ForumStatsService forumStatsService) {
         this.userService = userService;
         this.topicService = topicService;
         this.postService = postService;
         this.commentService = commentService;
+        this.forumStatsService = forumStatsService;
     }
 
     /**
@@ -50,18 +62,19 @@ public class AdminController {
      */
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
-        // Collect statistics
+        // Collect statistics (kept in memory, see ForumStatsSnapshot)
+        ForumStats forumStats = forumStatsService.getStats();
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalUsers", userService.getTotalUserCount());
-        stats.put("totalTopics", topicService.getTotalTopicCount());
-        stats.put("totalPosts", postService.getTotalPostCount());
-        stats.put("totalComments", commentService.getTotalCommentCount());
-        stats.put("activeUsers", userService.getActiveUserCount());
-        stats.put("bannedUsers", userService.getBannedUserCount());
+        stats.put("totalUsers", forumStats.getTotalUsers());
+        stats.put("totalTopics", forumStats.getTotalTopics());
+        stats.put("totalPosts", forumStats.getTotalPosts());
+        stats.put("totalComments", forumStats.getTotalComments());
+        stats.put("activeUsers", forumStats.getActiveUsers());
+        stats.put("bannedUsers", forumStats.getBannedUsers());
 
         // Recent activity
         List<User> recentUsers = userService.getRecentUsers(10);
-        List<Topic> recentTopics = topicService.getRecentTopics(10);
+        List<RecentTopicDto> recentTopics = topicService.getRecentTopicViews(10);
 
         model.addAttribute("stats", stats);
         model.addAttribute("recentUsers", recentUsers);
@@ -77,17 +90,19 @@ public class AdminController {
     public String listUsers(@RequestParam(required = false) String search,
                            @RequestParam(required = false) String role,
                            @RequestParam(required = false) String status,
+                           @RequestParam(defaultValue = "0") int page,
                            Model model) {
-        List<User> users;
+        Pageable pageable = PageRequest.of(page, Constants.ADMIN_PAGE_SIZE);
+        Page<User> users;
 
         if (search != null && !search.isEmpty()) {
-            users = userService.searchUsers(search);
+            users = userService.searchUsers(search, pageable);
         } else if (role != null && !role.isEmpty()) {
-            users = userService.getUsersByRole(role);
+            users = userService.getUsersByRole(role, pageable);
         } else if ("banned".equals(status)) {
-            users = userService.getBannedUsers();
+            users = userService.getBannedUsers(pageable);
         } else {
-            users = userService.getAllUsers();
+            users = userService.getAllUsers(pageable);
         }
 
         model.addAttribute("users", users);
@@ -174,36 +189,32 @@ public class AdminController {
                             @RequestParam(required = false) String category,
                             @RequestParam(defaultValue = "0") int page,
                             Model model) {
-        List<Topic> topics;
+        Pageable pageable = PageRequest.of(page, Constants.ADMIN_PAGE_SIZE);
+        Page<TopicViewDto> topics;
+        TopicTotalsDto totals = null;
 
+        // Header totals come from an aggregate query; search results only show their count
         if (search != null && !search.isEmpty()) {
-            topics = topicService.searchTopics(search);
+            topics = topicService.searchTopicViews(search, pageable);
         } else if (category != null && !category.isEmpty()) {
-            topics = topicService.getTopicsByCategory(category);
+            topics = topicService.getTopicViewsByCategory(category, pageable);
+            totals = topicService.getTopicTotalsByCategory(category);
         } else {
-            topics = topicService.getAllTopics();
+            topics = topicService.getAllTopicViews(pageable);
+            totals = topicService.getTopicTotals();
         }
 
-        // Calculate statistics
-        long pinnedCount = topics.stream().filter(topic -> topic.getIsPinned()).count();
-        long lockedCount = topics.stream().filter(topic -> topic.getIsLocked()).count();
-        long totalViews = topics.stream().mapToLong(Topic::getViewCount).sum();
-
-        // Simple pagination implementation
-        int pageSize = 20;
-        int start = page * pageSize;
-        int end = Math.min(start + pageSize, topics.size());
-        List<Topic> pageContent = topics.subList(start, end);
-
-        model.addAttribute("topics", pageContent);
+        model.addAttribute("topics", topics.getContent());
         model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", (int) Math.ceil((double) topics.size() / pageSize));
-        model.addAttribute("totalElements", topics.size());
-        model.addAttribute("hasNext", end < topics.size());
-        model.addAttribute("hasPrevious", page > 0);
-        model.addAttribute("pinnedCount", pinnedCount);
-        model.addAttribute("lockedCount", lockedCount);
-        model.addAttribute("totalViews", totalViews);
+        model.addAttribute("totalPages", topics.getTotalPages());
+        model.addAttribute("totalElements", topics.getTotalElements());
+        model.addAttribute("hasNext", topics.hasNext());
+        model.addAttribute("hasPrevious", topics.hasPrevious());
+        if (totals != null) {
+            model.addAttribute("pinnedCount", totals.getPinnedCount());
+            model.addAttribute("lockedCount", totals.getLockedCount());
+            model.addAttribute("totalViews", totals.getViewCount());
+        }
         model.addAttribute("search", search);
         model.addAttribute("category", category);
         model.addAttribute("categories", TopicCategory.values());
@@ -285,30 +296,24 @@ public class AdminController {
      * Comment Management - List all comments
      */
     @GetMapping("/comments")
-    public String listComments(@RequestParam(required = false) String search, Model model) {
-        List<Comment> comments;
+    public String listComments(@RequestParam(required = false) String search,
+                               @RequestParam(defaultValue = "0") int page,
+                               Model model) {
+        Pageable pageable = PageRequest.of(page, Constants.ADMIN_PAGE_SIZE);
+        Page<Comment> comments;
 
+        // Header totals come from an aggregate query; search results only show their count
         if (search != null && !search.isEmpty()) {
-            comments = commentService.searchComments(search);
+            comments = commentService.searchComments(search, pageable);
         } else {
-            comments = commentService.getAllComments();
+            comments = commentService.getAllComments(pageable);
+            CommentTotalsDto totals = commentService.getCommentTotals();
+            model.addAttribute("uniqueAuthors", totals.getAuthorCount());
+            model.addAttribute("uniquePosts", totals.getPostCount());
         }
 
-        // Calculate statistics
-        long uniqueAuthors = comments.stream()
-                .map(comment -> comment.getAuthor().getId())
-                .distinct()
-                .count();
-
-        long uniquePosts = comments.stream()
-                .map(comment -> comment.getPost().getId())
-                .distinct()
-                .count();
-
         model.addAttribute("comments", comments);
         model.addAttribute("search", search);
-        model.addAttribute("uniqueAuthors", uniqueAuthors);
-        model.addAttribute("uniquePosts", uniquePosts);
 
         return "admin/comments";
     }
@@ -332,26 +337,27 @@ public class AdminController {
      */
     @GetMapping("/analytics")
     public String analytics(Model model) {
+        ForumStats forumStats = forumStatsService.getStats();
         Map<String, Object> analytics = new HashMap<>();
 
         // User analytics
-        analytics.put("totalUsers", userService.getTotalUserCount());
-        analytics.put("activeUsers", userService.getActiveUserCount());
-        analytics.put("bannedUsers", userService.getBannedUserCount());
-        analytics.put("newUsersToday", userService.getNewUsersToday());
-        analytics.put("newUsersThisWeek", userService.getNewUsersThisWeek());
-        analytics.put("newUsersThisMonth", userService.getNewUsersThisMonth());
+        analytics.put("totalUsers", forumStats.getTotalUsers());
+        analytics.put("activeUsers", forumStats.getActiveUsers());
+        analytics.put("bannedUsers", forumStats.getBannedUsers());
+        analytics.put("newUsersToday", forumStats.getNewUsersToday());
+        analytics.put("newUsersThisWeek", forumStats.getNewUsersThisWeek());
+        analytics.put("newUsersThisMonth", forumStats.getNewUsersThisMonth());
 
         // Content analytics
-        analytics.put("totalTopics", topicService.getTotalTopicCount());
-        analytics.put("totalPosts", postService.getTotalPostCount());
-        analytics.put("totalComments", commentService.getTotalCommentCount());
-        analytics.put("pinnedTopics", topicService.getPinnedTopicCount());
-        analytics.put("lockedTopics", topicService.getLockedTopicCount());
+        analytics.put("totalTopics", forumStats.getTotalTopics());
+        analytics.put("totalPosts", forumStats.getTotalPosts());
+        analytics.put("totalComments", forumStats.getTotalComments());
+        analytics.put("pinnedTopics", forumStats.getPinnedTopics());
+        analytics.put("lockedTopics", forumStats.getLockedTopics());
 
         // Top contributors
         analytics.put("topPosters", userService.getTopPosters(10));
-        analytics.put("topicsByCategory", topicService.getTopicCountByCategory());
+        analytics.put("topicsByCategory", forumStats.getTopicsByCategory());
 
         model.addAttribute("analytics", analytics);
 
@@ -1,6 +1,8 @@
 package com.example.ufc.controller;
 
 import com.example.ufc.dto.AuthenticationResponse;
+import com.example.ufc.entity.User;
+import com.example.ufc.service.UserService;
 import com.example.ufc.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +21,9 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UserService userService;
+
     @PostMapping("/login")
     public ResponseEntity<?> createAuthenticationToken(@RequestParam String username, @RequestParam String password) throws Exception {
         try {
@@ -26,7 +31,10 @@ public class AuthController {
         } catch (BadCredentialsException e) {
             return ResponseEntity.status(401).body("Incorrect username or password");
         }
-        final String jwt = jwtUtil.generateToken(username);
+        // Role and account state go into the token, so API requests don't load the user again
+        User user = userService.findByUsername(username)
+                .orElseThrow(() -> new BadCredentialsException("User not found"));
+        final String jwt = jwtUtil.generateToken(user);
         return ResponseEntity.ok(new AuthenticationResponse(jwt));
     }
 }
\ No newline at end of file
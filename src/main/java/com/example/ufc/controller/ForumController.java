@@ -4,19 +4,26 @@ import com.example.ufc.dto.PostCreateDto;
 import com.example.ufc.dto.PostViewDto;
 import com.example.ufc.dto.TopicCreateDto;
 import com.example.ufc.dto.TopicViewDto;
-import com.example.ufc.entity.Post;
 import com.example.ufc.entity.Topic;
 import com.example.ufc.entity.TopicCategory;
 import com.example.ufc.entity.User;
+import com.example.ufc.mapper.PostMapper;
+import com.example.ufc.mapper.TopicMapper;
+import com.example.ufc.service.CurrentUserService;
+import com.example.ufc.service.ForumStats;
+import com.example.ufc.service.ForumStatsService;
+import com.example.ufc.service.PostPage;
 import com.example.ufc.service.PostService;
 import com.example.ufc.service.TopicService;
 import com.example.ufc.service.UserService;
+import com.example.ufc.util.Constants;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -35,14 +42,22 @@ public class ForumController {
     private final TopicService topicService;
     private final PostService postService;
     private final UserService userService;
-    private final ModelMapper modelMapper;
+    private final CurrentUserService currentUserService;
+    private final ForumStatsService forumStatsService;
+    private final TopicMapper topicMapper;
+    private final PostMapper postMapper;
 
     @Autowired
-    public ForumController(TopicService topicService, PostService postService, UserService userService, ModelMapper modelMapper) {
+    public ForumController(TopicService topicService, PostService postService, UserService userService,
+                           CurrentUserService currentUserService, ForumStatsService forumStatsService,
+                           TopicMapper topicMapper, PostMapper postMapper) {
         this.topicService = topicService;
         this.postService = postService;
         this.userService = userService;
-        this.modelMapper = modelMapper;
+        this.currentUserService = currentUserService;
+        this.forumStatsService = forumStatsService;
+        this.topicMapper = topicMapper;
+        this.postMapper = postMapper;
     }
 
     @GetMapping
@@ -50,14 +65,12 @@ public class ForumController {
                             @RequestParam(defaultValue = "20") int size,
                             Model model) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Topic> topicsPage = topicService.findAllOrderByPinnedAndLastPost(pageable);
-
-        // Map to DTOs
-        Page<TopicViewDto> topicDtos = topicsPage.map(this::convertToDto);
+        Page<TopicViewDto> topicDtos = topicService.findTopicViews(pageable);
+        ForumStats stats = forumStatsService.getStats();
 
         model.addAttribute("topics", topicDtos);
-        model.addAttribute("categories", TopicCategory.values());
-        model.addAttribute("totalTopics", topicService.countAllTopics());
+        model.addAttribute("categoryStats", stats.getCategories());
+        model.addAttribute("totalTopics", stats.getTotalTopics());
 
         return "forum/index";
     }
@@ -68,14 +81,12 @@ public class ForumController {
                                @RequestParam(defaultValue = "20") int size,
                                Model model) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Topic> topicsPage = topicService.findByCategory(category, pageable);
-
-        // Map to DTOs
-        Page<TopicViewDto> topicDtos = topicsPage.map(this::convertToDto);
+        Page<TopicViewDto> topicDtos = topicService.findTopicViewsByCategory(category, pageable);
 
         model.addAttribute("topics", topicDtos);
         model.addAttribute("category", category);
         model.addAttribute("categoryName", category.getDisplayName());
+        model.addAttribute("categoryStats", forumStatsService.getStats().getCategory(category));
 
         return "forum/category";
     }
@@ -120,9 +131,13 @@ public class ForumController {
 
     @GetMapping("/topic/{id}")
     public String viewTopic(@PathVariable Long id,
+                           @RequestParam(required = false) String after,
+                           @RequestParam(required = false) String before,
+                           @RequestParam(required = false, defaultValue = "false") boolean last,
                            Authentication authentication,
+                           HttpServletRequest request,
                            Model model) {
-        Optional<Topic> topicOpt = topicService.findById(id);
+        Optional<Topic> topicOpt = topicService.findByIdWithAuthors(id);
 
         if (topicOpt.isEmpty()) {
             return "redirect:/forum?error=topicNotFound";
@@ -130,47 +145,39 @@ public class ForumController {
 
         Topic topic = topicOpt.get();
 
-        // Increment view count
-        topicService.incrementViewCount(id);
+        // Increment view count (repeat views by the same viewer are not counted)
+        topicService.incrementViewCount(id, viewerKey(authentication, request));
 
-        // Get all posts for this topic
-        List<Post> posts = postService.findByTopicId(id);
-        List<PostViewDto> postDtos = posts.stream()
-                .map(this::convertPostToDto)
+        // One page of posts; megathreads have thousands of replies
+        PostPage page = postService.findTopicPage(id, after, before, last, Constants.TOPIC_POSTS_PAGE_SIZE);
+        List<PostViewDto> postDtos = page.getPosts().stream()
+                .map(postMapper::toViewDto)
                 .collect(Collectors.toList());
 
-        TopicViewDto topicDto = convertToDto(topic);
+        TopicViewDto topicDto = topicMapper.toViewDto(topic);
         model.addAttribute("topic", topicDto);
         model.addAttribute("posts", postDtos);
+        model.addAttribute("postPage", page);
         model.addAttribute("postCreateDto", new PostCreateDto());
 
         // Check if current user can modify the topic
-        if (authentication != null && authentication.isAuthenticated()) {
-            User currentUser = userService.findByUsername(authentication.getName()).orElse(null);
-            if (currentUser != null) {
-                model.addAttribute("currentUserId", currentUser.getId());
-                model.addAttribute("canModifyTopic", topic.canBeModifiedBy(currentUser));
-            }
-        }
+        currentUserService.getCurrentUser().ifPresent(currentUser -> {
+            model.addAttribute("currentUserId", currentUser.getId());
+            model.addAttribute("canModifyTopic", currentUser.canModify(topic.getAuthor()));
+        });
 
         return "forum/topic-view";
     }
 
-    private TopicViewDto convertToDto(Topic topic) {
-        TopicViewDto dto = modelMapper.map(topic, TopicViewDto.class);
-        dto.setAuthorUsername(topic.getAuthor().getUsername());
-        if (topic.getLastPostUser() != null) {
-            dto.setLastPostUsername(topic.getLastPostUser().getUsername());
+    /**
+     * Identifies the viewer for view deduplication: the username when logged in, otherwise
+     * the client address plus user agent (sessions are not used, see SecurityConfig).
+     */
+    private String viewerKey(Authentication authentication, HttpServletRequest request) {
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
         }
-        return dto;
-    }
-
-    private PostViewDto convertPostToDto(Post post) {
-        PostViewDto dto = modelMapper.map(post, PostViewDto.class);
-        dto.setAuthorUsername(post.getAuthor().getUsername());
-        dto.setAuthorId(post.getAuthor().getId());
-        dto.setTopicId(post.getTopic().getId());
-        dto.setIsEdited(post.getUpdatedAt() != null);
-        return dto;
+        return "anonymous:" + request.getRemoteAddr() + '|' + request.getHeader("User-Agent");
     }
 }
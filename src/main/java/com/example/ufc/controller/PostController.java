@@ -4,6 +4,7 @@ import com.example.ufc.dto.PostCreateDto;
 import com.example.ufc.entity.Post;
 import com.example.ufc.entity.Topic;
 import com.example.ufc.entity.User;
+import com.example.ufc.service.CurrentUserService;
 import com.example.ufc.service.PostService;
 import com.example.ufc.service.TopicService;
 import com.example.ufc.service.UserService;
@@ -25,12 +26,15 @@ public class PostController {
     private final PostService postService;
     private final TopicService topicService;
     private final UserService userService;
+    private final CurrentUserService currentUserService;
 
     @Autowired
-    public PostController(PostService postService, TopicService topicService, UserService userService) {
+    public PostController(PostService postService, TopicService topicService, UserService userService,
+                          CurrentUserService currentUserService) {
         this.postService = postService;
         this.topicService = topicService;
         this.userService = userService;
+        this.currentUserService = currentUserService;
     }
 
     @PostMapping("/create")
@@ -65,7 +69,8 @@ public class PostController {
             postService.createPost(postCreateDto.getContent(), topic, author);
 
             redirectAttributes.addFlashAttribute("successMessage", "Коментарът беше добавен успешно!");
-            return "redirect:/forum/topic/" + topic.getId();
+            // The new reply is on the last page
+            return "redirect:/forum/topic/" + topic.getId() + "?last=true";
 
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", "Възникна грешка: " + e.getMessage());
@@ -86,9 +91,11 @@ public class PostController {
         }
 
         Post post = postOpt.get();
-        User user = userService.findByUsername(authentication.getName()).orElse(null);
+        boolean canModify = currentUserService.getCurrentUser()
+                .map(currentUser -> currentUser.canModify(post.getAuthor()))
+                .orElse(false);
 
-        if (!postService.canUserModifyPost(post, user)) {
+        if (!canModify) {
             redirectAttributes.addFlashAttribute("errorMessage", "Нямате права да редактирате този коментар");
             return "redirect:/forum/topic/" + post.getTopic().getId();
         }
@@ -1,28 +1,36 @@
 package com.example.ufc.controller;
 
 import com.example.ufc.dto.SearchResultDto;
+import com.example.ufc.dto.SuggestionDto;
+import com.example.ufc.search.SuggestionIndex;
 import com.example.ufc.service.SearchService;
+import com.example.ufc.util.Constants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 @Controller
 @RequestMapping("/search")
 public class SearchController {
 
     private final SearchService searchService;
+    private final SuggestionIndex suggestionIndex;
 
     @Autowired
-    public SearchController(SearchService searchService) {
+    public SearchController(SearchService searchService, SuggestionIndex suggestionIndex) {
         this.searchService = searchService;
+        this.suggestionIndex = suggestionIndex;
     }
 
     @GetMapping
     public String search(@RequestParam(required = false) String q,
                         @RequestParam(required = false, defaultValue = "all") String type,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(required = false, defaultValue = "false") boolean fuzzy,
                         Model model) {
 
         if (q == null || q.trim().isEmpty()) {
@@ -30,14 +38,23 @@ public class SearchController {
             return "search/results";
         }
 
-        SearchResultDto results = searchService.search(q, type);
+        SearchResultDto results = searchService.search(q, type, cursor, fuzzy);
 
         model.addAttribute("results", results);
         model.addAttribute("query", q);
         model.addAttribute("type", type);
+        model.addAttribute("fuzzy", fuzzy);
         model.addAttribute("showEmptyState", false);
 
         return "search/results";
     }
-}
 
+    /**
+     * Prefix suggestions for the search box, called on every keystroke. Answered from memory only.
+     */
+    @GetMapping("/suggest")
+    @ResponseBody
+    public SuggestionDto suggest(@RequestParam(required = false, defaultValue = "") String q) {
+        return suggestionIndex.suggest(q, Constants.SEARCH_SUGGESTION_LIMIT);
+    }
+}
@@ -1,15 +1,16 @@
 package com.example.ufc.controller;
 
+import com.example.ufc.dto.TopicViewDto;
 import com.example.ufc.dto.UserProfileDto;
 import com.example.ufc.dto.UserProfileUpdateDto;
 import com.example.ufc.entity.Post;
-import com.example.ufc.entity.Topic;
 import com.example.ufc.entity.User;
+import com.example.ufc.mapper.UserMapper;
 import com.example.ufc.service.PostService;
 import com.example.ufc.service.TopicService;
 import com.example.ufc.service.UserService;
+import com.example.ufc.util.Constants;
 import jakarta.validation.Valid;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -21,9 +22,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/user")
@@ -32,15 +31,15 @@ public class UserProfileController {
     private final UserService userService;
     private final TopicService topicService;
     private final PostService postService;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
 
     @Autowired
     public UserProfileController(UserService userService, TopicService topicService,
-                                PostService postService, ModelMapper modelMapper) {
+                                PostService postService, UserMapper userMapper) {
         this.userService = userService;
         this.topicService = topicService;
         this.postService = postService;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
     }
 
     @GetMapping("/profile/{username}")
@@ -69,19 +68,14 @@ public class UserProfileController {
         model.addAttribute("isOwnProfile", isOwnProfile);
         model.addAttribute("activeTab", tab);
 
-        // Load tab-specific content
-        Pageable pageable = PageRequest.of(page, 10);
+        // Load tab-specific content, one page at a time
+        Pageable pageable = PageRequest.of(page, Constants.PROFILE_PAGE_SIZE);
 
         if ("topics".equals(tab)) {
-            List<Topic> userTopics = topicService.findAll().stream()
-                    .filter(t -> t.getAuthor().getId().equals(user.getId()))
-                    .limit(10)
-                    .collect(Collectors.toList());
+            Page<TopicViewDto> userTopics = topicService.findTopicViewsByAuthor(user.getId(), pageable);
             model.addAttribute("topics", userTopics);
         } else if ("posts".equals(tab)) {
-            List<Post> userPosts = postService.findByAuthorId(user.getId()).stream()
-                    .limit(10)
-                    .collect(Collectors.toList());
+            Page<Post> userPosts = postService.findByAuthorId(user.getId(), pageable);
             model.addAttribute("posts", userPosts);
         }
 
@@ -115,9 +109,7 @@ public class UserProfileController {
                                Model model) {
 
         if (result.hasErrors()) {
-            User user = userService.findByUsername(authentication.getName())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            model.addAttribute("username", user.getUsername());
+            model.addAttribute("username", authentication.getName());
             return "user/profile-edit";
         }
 
@@ -132,19 +124,12 @@ public class UserProfileController {
 
         } catch (Exception e) {
             model.addAttribute("errorMessage", "Грешка при обновяване на профила: " + e.getMessage());
-            User user = userService.findByUsername(authentication.getName())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            model.addAttribute("username", user.getUsername());
+            model.addAttribute("username", authentication.getName());
             return "user/profile-edit";
         }
     }
 
     private UserProfileDto convertToProfileDto(User user) {
-        UserProfileDto dto = modelMapper.map(user, UserProfileDto.class);
-        dto.setRole(user.getRole().name());
-        dto.setTopicCount(userService.countUserTopics(user.getId()));
-        dto.setPostCount(userService.countUserPosts(user.getId()));
-        dto.setReputation(user.getReputation());
-        return dto;
+        return userMapper.toProfileDto(user);
     }
 }
@@ -0,0 +1,59 @@
+package com.example.ufc.dto;
+
+import com.example.ufc.entity.TopicCategory;
+
+/**
+ * Topic, reply and view totals of one forum category.
+ */
+public class CategoryStatsDto {
+
+    private TopicCategory category;
+    private long topicCount;
+    private long replyCount;
+    private long viewCount;
+
+    public CategoryStatsDto() {
+    }
+
+    /**
+     * Used by the aggregate query in TopicRepository.
+     */
+    public CategoryStatsDto(TopicCategory category, Long topicCount, Long replyCount, Long viewCount) {
+        this.category = category;
+        this.topicCount = topicCount != null ? topicCount : 0;
+        this.replyCount = replyCount != null ? replyCount : 0;
+        this.viewCount = viewCount != null ? viewCount : 0;
+    }
+
+    public TopicCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(TopicCategory category) {
+        this.category = category;
+    }
+
+    public long getTopicCount() {
+        return topicCount;
+    }
+
+    public void setTopicCount(long topicCount) {
+        this.topicCount = topicCount;
+    }
+
+    public long getReplyCount() {
+        return replyCount;
+    }
+
+    public void setReplyCount(long replyCount) {
+        this.replyCount = replyCount;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(long viewCount) {
+        this.viewCount = viewCount;
+    }
+}
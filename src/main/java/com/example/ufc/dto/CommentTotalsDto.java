@@ -0,0 +1,47 @@
+package com.example.ufc.dto;
+
+/**
+ * Header totals of the admin comment list, computed by the database.
+ */
+public class CommentTotalsDto {
+
+    private long commentCount;
+    private long authorCount;
+    private long postCount;
+
+    public CommentTotalsDto() {
+    }
+
+    /**
+     * Used by the aggregate query in CommentRepository.
+     */
+    public CommentTotalsDto(Long commentCount, Long authorCount, Long postCount) {
+        this.commentCount = commentCount != null ? commentCount : 0;
+        this.authorCount = authorCount != null ? authorCount : 0;
+        this.postCount = postCount != null ? postCount : 0;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public long getAuthorCount() {
+        return authorCount;
+    }
+
+    public void setAuthorCount(long authorCount) {
+        this.authorCount = authorCount;
+    }
+
+    public long getPostCount() {
+        return postCount;
+    }
+
+    public void setPostCount(long postCount) {
+        this.postCount = postCount;
+    }
+}
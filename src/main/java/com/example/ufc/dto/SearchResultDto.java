@@ -9,6 +9,8 @@ public class SearchResultDto {
     private List<PostSearchResult> posts = new ArrayList<>();
     private List<UserSearchResult> users = new ArrayList<>();
     private String query;
+    private String nextCursor;
+    private boolean partial;
 
     public SearchResultDto() {
     }
@@ -46,6 +48,22 @@ public class SearchResultDto {
         this.query = query;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
     public int getTotalResults() {
         return topics.size() + posts.size() + users.size();
     }
@@ -54,12 +72,13 @@ public class SearchResultDto {
     public static class TopicSearchResult {
         private Long id;
         private String title;
-        private String excerpt;
+        private String excerpt; // escaped HTML with <mark> around matches
         private String authorUsername;
         private String categoryName;
         private LocalDateTime createdAt;
         private int viewCount;
         private int replyCount;
+        private float score;
 
         public TopicSearchResult() {
         }
@@ -128,16 +147,25 @@ public class SearchResultDto {
         public void setReplyCount(int replyCount) {
             this.replyCount = replyCount;
         }
+
+        public float getScore() {
+            return score;
+        }
+
+        public void setScore(float score) {
+            this.score = score;
+        }
     }
 
     public static class PostSearchResult {
         private Long id;
         private String content;
-        private String excerpt;
+        private String excerpt; // escaped HTML with <mark> around matches
         private String authorUsername;
         private Long topicId;
         private String topicTitle;
         private LocalDateTime createdAt;
+        private float score;
 
         public PostSearchResult() {
         }
@@ -198,6 +226,14 @@ public class SearchResultDto {
         public void setCreatedAt(LocalDateTime createdAt) {
             this.createdAt = createdAt;
         }
+
+        public float getScore() {
+            return score;
+        }
+
+        public void setScore(float score) {
+            this.score = score;
+        }
     }
 
     public static class UserSearchResult {
@@ -208,6 +244,7 @@ public class SearchResultDto {
         private LocalDateTime createdAt;
         private int topicCount;
         private int postCount;
+        private float score;
 
         public UserSearchResult() {
         }
@@ -268,5 +305,13 @@ public class SearchResultDto {
         public void setPostCount(int postCount) {
             this.postCount = postCount;
         }
+
+        public float getScore() {
+            return score;
+        }
+
+        public void setScore(float score) {
+            this.score = score;
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.example.ufc.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SuggestionDto {
+    private List<Item> topics = new ArrayList<>();
+    private List<Item> users = new ArrayList<>();
+
+    public SuggestionDto() {
+    }
+
+    // Getters and Setters
+    public List<Item> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(List<Item> topics) {
+        this.topics = topics;
+    }
+
+    public List<Item> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<Item> users) {
+        this.users = users;
+    }
+
+    // Inner classes
+    public static class Item {
+        private Long id;
+        private String text;
+        private String url;
+
+        public Item() {
+        }
+
+        public Item(Long id, String text, String url) {
+            this.id = id;
+            this.text = text;
+            this.url = url;
+        }
+
+        // Getters and Setters
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public void setText(String text) {
+            this.text = text;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ufc.dto;
+
+/**
+ * Header totals of the admin topic list, computed by the database for the current filter.
+ */
+public class TopicTotalsDto {
+
+    private long topicCount;
+    private long pinnedCount;
+    private long lockedCount;
+    private long viewCount;
+
+    public TopicTotalsDto() {
+    }
+
+    /**
+     * Used by the aggregate queries in TopicRepository; sums over no rows come back as {@code null}.
+     */
+    public TopicTotalsDto(Long topicCount, Long pinnedCount, Long lockedCount, Long viewCount) {
+        this.topicCount = topicCount != null ? topicCount : 0;
+        this.pinnedCount = pinnedCount != null ? pinnedCount : 0;
+        this.lockedCount = lockedCount != null ? lockedCount : 0;
+        this.viewCount = viewCount != null ? viewCount : 0;
+    }
+
+    public long getTopicCount() {
+        return topicCount;
+    }
+
+    public void setTopicCount(long topicCount) {
+        this.topicCount = topicCount;
+    }
+
+    public long getPinnedCount() {
+        return pinnedCount;
+    }
+
+    public void setPinnedCount(long pinnedCount) {
+        this.pinnedCount = pinnedCount;
+    }
+
+    public long getLockedCount() {
+        return lockedCount;
+    }
+
+    public void setLockedCount(long lockedCount) {
+        this.lockedCount = lockedCount;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(long viewCount) {
+        this.viewCount = viewCount;
+    }
+}
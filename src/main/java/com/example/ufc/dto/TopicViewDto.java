@@ -21,6 +21,25 @@ public class TopicViewDto {
     public TopicViewDto() {
     }
 
+    /**
+     * Used by the list projections in TopicRepository; the content is not selected and stays null.
+     */
+    public TopicViewDto(Long id, String title, TopicCategory category, Integer viewCount, Integer replyCount,
+                        Boolean isPinned, Boolean isLocked, LocalDateTime createdAt, LocalDateTime lastPostAt,
+                        String authorUsername, String lastPostUsername) {
+        this.id = id;
+        this.title = title;
+        this.category = category;
+        this.viewCount = viewCount;
+        this.replyCount = replyCount;
+        this.isPinned = isPinned;
+        this.isLocked = isLocked;
+        this.createdAt = createdAt;
+        this.lastPostAt = lastPostAt;
+        this.authorUsername = authorUsername;
+        this.lastPostUsername = lastPostUsername;
+    }
+
     public Long getId() {
         return id;
     }
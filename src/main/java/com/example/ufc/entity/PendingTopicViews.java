@@ -0,0 +1,10 @@
+package com.example.ufc.entity;
+
+/**
+ * Source of topic views counted but not yet written to {@code topics.view_count}, which
+ * {@link TopicViewListener} adds to every loaded topic.
+ */
+public interface PendingTopicViews {
+
+    long pendingViews(Long topicId);
+}
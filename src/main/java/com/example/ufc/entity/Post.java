@@ -5,8 +5,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "posts", indexes = {
-        @Index(name = "idx_post_topic", columnList = "topic_id"),
-        @Index(name = "idx_post_author", columnList = "author_id"),
+        @Index(name = "idx_post_topic_created", columnList = "topic_id, created_at, id"),
+        @Index(name = "idx_post_author_created", columnList = "author_id, created_at"),
         @Index(name = "idx_post_created_at", columnList = "created_at")
 })
 public class Post extends BaseEntity {
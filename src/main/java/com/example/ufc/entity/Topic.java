@@ -10,8 +10,10 @@ import java.util.List;
         @Index(name = "idx_topic_category", columnList = "category"),
         @Index(name = "idx_topic_created_at", columnList = "created_at"),
         @Index(name = "idx_topic_last_post_at", columnList = "last_post_at"),
-        @Index(name = "idx_topic_pinned", columnList = "is_pinned")
+        @Index(name = "idx_topic_pinned", columnList = "is_pinned"),
+        @Index(name = "idx_topic_author_created", columnList = "author_id, created_at")
 })
+@EntityListeners(TopicViewListener.class)
 public class Topic extends BaseEntity {
 
     @Column(name = "title", nullable = false, length = 200)
@@ -24,10 +26,16 @@ public class Topic extends BaseEntity {
     @Column(name = "category", nullable = false)
     private TopicCategory category;
 
-    @Column(name = "view_count", nullable = false)
+    // Only written by TopicViewCounter's increments, so saving a topic never overwrites newer counts
+    @Column(name = "view_count", nullable = false, updatable = false)
     private Integer viewCount = 0;
 
-    @Column(name = "reply_count", nullable = false)
+    // Views buffered in memory when the topic was loaded
+    @Transient
+    private long pendingViews;
+
+    // Reply count and last post are only written by TopicRepository's reply updates (and on insert)
+    @Column(name = "reply_count", nullable = false, updatable = false)
     private Integer replyCount = 0;
 
     @Column(name = "is_pinned", nullable = false)
@@ -36,7 +44,7 @@ public class Topic extends BaseEntity {
     @Column(name = "is_locked", nullable = false)
     private Boolean isLocked = false;
 
-    @Column(name = "last_post_at")
+    @Column(name = "last_post_at", updatable = false)
     private LocalDateTime lastPostAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -44,7 +52,7 @@ public class Topic extends BaseEntity {
     private User author;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "last_post_user_id")
+    @JoinColumn(name = "last_post_user_id", updatable = false)
     private User lastPostUser;
 
     @OneToMany(mappedBy = "topic", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -65,26 +73,6 @@ public class Topic extends BaseEntity {
     }
 
     // Business methods
-    public void incrementViewCount() {
-        this.viewCount++;
-    }
-
-    public void incrementReplyCount() {
-        this.replyCount++;
-        this.lastPostAt = LocalDateTime.now();
-    }
-
-    public void decrementReplyCount() {
-        if (this.replyCount > 0) {
-            this.replyCount--;
-        }
-    }
-
-    public void updateLastPost(User user) {
-        this.lastPostUser = user;
-        this.lastPostAt = LocalDateTime.now();
-    }
-
     public boolean canBeModifiedBy(User user) {
         return user.equals(this.author) || user.isModerator();
     }
@@ -119,13 +107,22 @@ public class Topic extends BaseEntity {
     }
 
     public Integer getViewCount() {
-        return viewCount;
+        return (int) (viewCount + pendingViews);
     }
 
     public void setViewCount(Integer viewCount) {
         this.viewCount = viewCount;
     }
 
+    // Without the views that were still buffered when the topic was loaded
+    public Integer getStoredViewCount() {
+        return viewCount;
+    }
+
+    void setPendingViews(long pendingViews) {
+        this.pendingViews = pendingViews;
+    }
+
     public Integer getReplyCount() {
         return replyCount;
     }
@@ -0,0 +1,27 @@
+package com.example.ufc.entity;
+
+import jakarta.persistence.PostLoad;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Adds the views not yet written to the database, as reported by {@link PendingTopicViews}, to every loaded topic.
+ * The source is looked up lazily because listeners are created while the persistence unit starts.
+ */
+public class TopicViewListener {
+
+    private final ObjectProvider<PendingTopicViews> pendingViews;
+
+    @Autowired
+    public TopicViewListener(ObjectProvider<PendingTopicViews> pendingViews) {
+        this.pendingViews = pendingViews;
+    }
+
+    @PostLoad
+    public void addPendingViews(Topic topic) {
+        PendingTopicViews views = pendingViews.getIfAvailable();
+        if (views != null) {
+            topic.setPendingViews(views.pendingViews(topic.getId()));
+        }
+    }
+}
@@ -56,13 +56,14 @@ public class User extends BaseEntity {
     @Column(name = "location", length = 100)
     private String location;
 
-    @Column(name = "post_count", nullable = false)
+    // Counters are only written by UserRepository.adjustCounters, so saving a user never overwrites newer counts
+    @Column(name = "post_count", nullable = false, updatable = false)
     private Integer postCount = 0;
 
-    @Column(name = "topic_count", nullable = false)
+    @Column(name = "topic_count", nullable = false, updatable = false)
     private Integer topicCount = 0;
 
-    @Column(name = "reputation", nullable = false)
+    @Column(name = "reputation", nullable = false, updatable = false)
     private Integer reputation = 0;
 
     // Fixed: Changed from CascadeType.ALL to prevent accidental deletion of forum content
@@ -100,30 +101,6 @@ public class User extends BaseEntity {
         this.lastActive = LocalDateTime.now();
     }
 
-    public void incrementPostCount() {
-        this.postCount++;
-    }
-
-    public void decrementPostCount() {
-        if (this.postCount > 0) {
-            this.postCount--;
-        }
-    }
-
-    public void incrementTopicCount() {
-        this.topicCount++;
-    }
-
-    public void decrementTopicCount() {
-        if (this.topicCount > 0) {
-            this.topicCount--;
-        }
-    }
-
-    public void addReputation(int points) {
-        this.reputation += points;
-    }
-
     public boolean isAdmin() {
         return role == Role.ADMIN;
     }
@@ -0,0 +1,33 @@
+package com.example.ufc.event;
+
+/**
+ * Published by the comment service after a comment is added to or removed from a post.
+ */
+public final class CommentEvent {
+
+    public enum Type {
+        CREATED, DELETED
+    }
+
+    private final Type type;
+    private final Long commentId;
+    private final Long postId;
+
+    public CommentEvent(Type type, Long commentId, Long postId) {
+        this.type = type;
+        this.commentId = commentId;
+        this.postId = postId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getCommentId() {
+        return commentId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ufc.event;
+
+import com.example.ufc.entity.Post;
+import com.example.ufc.entity.TopicCategory;
+
+/**
+ * Published by the post service after a reply is added to a topic, edited or removed from it.
+ */
+public final class PostEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Post post;
+    private final Long postId;
+    private final Long topicId;
+    private final TopicCategory category;
+    private final long removedComments;
+
+    public PostEvent(Type type, Post post) {
+        this(type, post, 0);
+    }
+
+    /**
+     * @param removedComments comments deleted along with the post
+     */
+    public PostEvent(Type type, Post post, long removedComments) {
+        this.type = type;
+        this.post = post;
+        this.postId = post.getId();
+        this.topicId = post.getTopic().getId();
+        this.category = post.getTopic().getCategory();
+        this.removedComments = removedComments;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * The post itself; as with {@link TopicEvent#getTopic()}, read only its own columns.
+     */
+    public Post getPost() {
+        return post;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public Long getTopicId() {
+        return topicId;
+    }
+
+    public TopicCategory getCategory() {
+        return category;
+    }
+
+    public long getRemovedComments() {
+        return removedComments;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.ufc.event;
+
+import com.example.ufc.entity.Topic;
+import com.example.ufc.entity.TopicCategory;
+
+import java.util.List;
+
+/**
+ * Published by the topic service after a topic is created, changed or removed. Carries the topic's
+ * state at that point, so listeners can adjust counters without reading it back.
+ */
+public final class TopicEvent {
+
+    public enum Type {
+        CREATED, UPDATED, PINNED, UNPINNED, LOCKED, UNLOCKED, DELETED
+    }
+
+    private final Type type;
+    private final Topic topic;
+    private final Long topicId;
+    private final TopicCategory category;
+    private final boolean pinned;
+    private final boolean locked;
+    private final long replies;
+    private final long views;
+    private final List<Long> removedPostIds;
+    private final long removedComments;
+
+    public TopicEvent(Type type, Topic topic) {
+        this(type, topic, List.of(), 0);
+    }
+
+    /**
+     * @param removedPostIds  posts deleted along with the topic
+     * @param removedComments comments deleted along with those posts
+     */
+    public TopicEvent(Type type, Topic topic, List<Long> removedPostIds, long removedComments) {
+        this.type = type;
+        this.topic = topic;
+        this.topicId = topic.getId();
+        this.category = topic.getCategory();
+        this.pinned = Boolean.TRUE.equals(topic.getIsPinned());
+        this.locked = Boolean.TRUE.equals(topic.getIsLocked());
+        this.replies = topic.getReplyCount() != null ? topic.getReplyCount() : 0;
+        this.views = topic.getViewCount();
+        this.removedPostIds = List.copyOf(removedPostIds);
+        this.removedComments = removedComments;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * The topic itself, for listeners that need more than the state above (e.g. its text).
+     * Listeners run after commit, so only its own columns should be read, not lazy associations.
+     */
+    public Topic getTopic() {
+        return topic;
+    }
+
+    public Long getTopicId() {
+        return topicId;
+    }
+
+    public TopicCategory getCategory() {
+        return category;
+    }
+
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public boolean isLocked() {
+        return locked;
+    }
+
+    public long getReplies() {
+        return replies;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public long getRemovedPosts() {
+        return removedPostIds.size();
+    }
+
+    public List<Long> getRemovedPostIds() {
+        return removedPostIds;
+    }
+
+    public long getRemovedComments() {
+        return removedComments;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.ufc.event;
+
+import com.example.ufc.entity.User;
+
+/**
+ * Published by the user service after an account is registered, changed, banned or removed.
+ * BANNED and UNBANNED are only published when the account's state actually changes.
+ * UPDATED says whether the username or role changed, the account details carried in API tokens.
+ */
+public final class UserEvent {
+
+    public enum Type {
+        REGISTERED, UPDATED, BANNED, UNBANNED, DELETED
+    }
+
+    private final Type type;
+    private final User user;
+    private final Long userId;
+    private final boolean active;
+    private final boolean identityChanged;
+
+    public UserEvent(Type type, User user) {
+        this(type, user, false);
+    }
+
+    public UserEvent(Type type, User user, boolean identityChanged) {
+        this.type = type;
+        this.user = user;
+        this.userId = user.getId();
+        this.active = Boolean.TRUE.equals(user.getIsActive());
+        this.identityChanged = identityChanged;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * The user itself; as with {@link TopicEvent#getTopic()}, read only its own columns.
+     */
+    public User getUser() {
+        return user;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Whether the account is active after the change; for DELETED, whether it was active when removed.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Whether the username or role changed, so tokens issued before carry stale claims.
+     */
+    public boolean isIdentityChanged() {
+        return identityChanged;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.ufc.filter;
+
+import com.example.ufc.event.UserEvent;
+import com.example.ufc.util.JwtPrincipal;
+import com.example.ufc.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies API tokens without touching the database. A token that verified once is kept in a small LRU
+ * keyed by its signature segment, so repeat requests with it skip the HMAC and JSON parsing. The whole
+ * token is compared on a hit: the signature alone must never stand in for verification.
+ * <p>
+ * Tokens are revoked per user: once {@link #revokeTokensOf} runs, every token of that user issued up
+ * to then is rejected, cached or not. Bans, removals and changes of the username or role (which are
+ * in the claims) revoke automatically; clients sign in again for a fresh token. Profile edits don't.
+ * Revocations are kept in memory for the token lifetime, so they are per instance.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    private final JwtUtil jwtUtil;
+    private final int maxSize;
+    private final long revocationRetentionMillis;
+
+    private final Map<String, Entry> verified;
+    // User id -> time of the last revocation, in epoch milliseconds
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JwtTokenVerifier(JwtUtil jwtUtil,
+                            @Value("${jwt.cache.max-size:10000}") int maxSize,
+                            @Value("${jwt.expiration:36000000}") long expirationMillis) {
+        this.jwtUtil = jwtUtil;
+        this.maxSize = maxSize;
+        this.revocationRetentionMillis = expirationMillis;
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > JwtTokenVerifier.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * The token's principal if it is correctly signed, not expired, issued to an active account and not revoked.
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        JwtPrincipal principal;
+        synchronized (verified) {
+            Entry entry = verified.get(signature);
+            principal = entry != null && entry.token.equals(token) ? entry.principal : null;
+        }
+
+        if (principal == null) {
+            try {
+                principal = jwtUtil.parse(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                return Optional.empty();
+            }
+            if (!principal.isActive()) {
+                return Optional.empty();
+            }
+            synchronized (verified) {
+                verified.put(signature, new Entry(token, principal));
+            }
+        }
+
+        if (principal.isExpired(System.currentTimeMillis()) || isRevoked(principal)) {
+            return Optional.empty();
+        }
+        return Optional.of(principal);
+    }
+
+    /**
+     * Rejects all tokens issued to the user so far.
+     */
+    public void revokeTokensOf(Long userId) {
+        long now = System.currentTimeMillis();
+        revokedBefore.put(userId, now);
+        // Tokens issued before a revocation this old have expired anyway
+        revokedBefore.values().removeIf(revokedAt -> revokedAt < now - revocationRetentionMillis);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(UserEvent event) {
+        switch (event.getType()) {
+            case BANNED, DELETED -> revokeTokensOf(event.getUserId());
+            default -> {
+                if (event.isIdentityChanged()) {
+                    revokeTokensOf(event.getUserId());
+                }
+            }
+        }
+    }
+
+    private boolean isRevoked(JwtPrincipal principal) {
+        Long revokedAt = revokedBefore.get(principal.getUserId());
+        // Issue times are whole seconds, so a token from the same second as the revocation is rejected too
+        return revokedAt != null && principal.getIssuedAt() <= revokedAt;
+    }
+
+    private static final class Entry {
+        private final String token;
+        private final JwtPrincipal principal;
+
+        private Entry(String token, JwtPrincipal principal) {
+            this.token = token;
+            this.principal = principal;
+        }
+    }
+}
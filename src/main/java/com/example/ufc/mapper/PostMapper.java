@@ -0,0 +1,26 @@
+package com.example.ufc.mapper;
+
+import com.example.ufc.dto.PostViewDto;
+import com.example.ufc.entity.Post;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plain getter/setter mapping for posts. Reads the author, so it should be fetched with the post;
+ * the topic is only asked for its ID, which doesn't initialize a lazy proxy.
+ */
+@Component
+public class PostMapper {
+
+    public PostViewDto toViewDto(Post post) {
+        PostViewDto dto = new PostViewDto();
+        dto.setId(post.getId());
+        dto.setContent(post.getContent());
+        dto.setCreatedAt(post.getCreatedAt());
+        dto.setUpdatedAt(post.getUpdatedAt());
+        dto.setAuthorUsername(post.getAuthor().getUsername());
+        dto.setAuthorId(post.getAuthor().getId());
+        dto.setTopicId(post.getTopic().getId());
+        dto.setIsEdited(post.getUpdatedAt() != null);
+        return dto;
+    }
+}
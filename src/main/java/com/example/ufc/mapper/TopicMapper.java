@@ -0,0 +1,32 @@
+package com.example.ufc.mapper;
+
+import com.example.ufc.dto.TopicViewDto;
+import com.example.ufc.entity.Topic;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plain getter/setter mapping, checked by the compiler; replaces reflective ModelMapper calls.
+ * Reads the author and last poster, so they should be fetched with the topic.
+ */
+@Component
+public class TopicMapper {
+
+    public TopicViewDto toViewDto(Topic topic) {
+        TopicViewDto dto = new TopicViewDto();
+        dto.setId(topic.getId());
+        dto.setTitle(topic.getTitle());
+        dto.setContent(topic.getContent());
+        dto.setCategory(topic.getCategory());
+        dto.setViewCount(topic.getViewCount());
+        dto.setReplyCount(topic.getReplyCount());
+        dto.setIsPinned(topic.getIsPinned());
+        dto.setIsLocked(topic.getIsLocked());
+        dto.setCreatedAt(topic.getCreatedAt());
+        dto.setLastPostAt(topic.getLastPostAt());
+        dto.setAuthorUsername(topic.getAuthor().getUsername());
+        if (topic.getLastPostUser() != null) {
+            dto.setLastPostUsername(topic.getLastPostUser().getUsername());
+        }
+        return dto;
+    }
+}
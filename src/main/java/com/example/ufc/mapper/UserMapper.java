@@ -0,0 +1,44 @@
+package com.example.ufc.mapper;
+
+import com.example.ufc.dto.UserProfileDto;
+import com.example.ufc.dto.UserRegistrationDto;
+import com.example.ufc.entity.User;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plain getter/setter mapping for users, in both directions.
+ */
+@Component
+public class UserMapper {
+
+    /**
+     * Profile fields stored on the user, including its denormalized topic and post counts.
+     */
+    public UserProfileDto toProfileDto(User user) {
+        UserProfileDto dto = new UserProfileDto();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setEmail(user.getEmail());
+        dto.setBio(user.getBio());
+        dto.setAvatarUrl(user.getAvatarUrl());
+        dto.setRole(user.getRole().name());
+        dto.setCreatedAt(user.getCreatedAt());
+        dto.setTopicCount(user.getTopicCount());
+        dto.setPostCount(user.getPostCount());
+        dto.setReputation(user.getReputation());
+        return dto;
+    }
+
+    /**
+     * A new user with the registration's identity fields. The password is not copied;
+     * the caller stores an encoded one.
+     */
+    public User fromRegistration(UserRegistrationDto registration) {
+        User user = new User();
+        user.setUsername(registration.getUsername());
+        user.setEmail(registration.getEmail());
+        user.setFirstName(registration.getFirstName());
+        user.setLastName(registration.getLastName());
+        return user;
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.ufc.repository;
 
+import com.example.ufc.dto.CommentTotalsDto;
 import com.example.ufc.entity.Comment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,10 +19,33 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByAuthorIdOrderByCreatedAtDesc(Long authorId);
     long countByPostId(Long postId);
 
-    // Admin repository methods
-    List<Comment> findAllByOrderByCreatedAtDesc();
+    @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.topic.id = :topicId")
+    long countByTopicId(Long topicId);
 
-    @Query("SELECT c FROM Comment c WHERE LOWER(c.content) LIKE LOWER(CONCAT('%', :search, '%'))")
-    List<Comment> searchByContent(String search);
+    // Admin repository methods; the list shows each comment's author and topic
+
+    @EntityGraph(attributePaths = {"author", "post", "post.topic"})
+    Page<Comment> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"author", "post", "post.topic"})
+    @Query(value = "SELECT c FROM Comment c WHERE LOWER(c.content) LIKE LOWER(CONCAT('%', :search, '%')) "
+            + "ORDER BY c.createdAt DESC",
+            countQuery = "SELECT COUNT(c) FROM Comment c WHERE LOWER(c.content) LIKE LOWER(CONCAT('%', :search, '%'))")
+    Page<Comment> searchByContent(String search, Pageable pageable);
+
+    // MySQL only: needs the ft_comments_content FULLTEXT index, see FullTextSearchBackend. A native query
+    // can't fetch associations, so it returns the page's ids and findWithAuthorAndTopicByIdIn loads them
+    @Query(value = "SELECT id FROM comments WHERE MATCH(content) AGAINST (:search IN BOOLEAN MODE) "
+            + "ORDER BY MATCH(content) AGAINST (:search IN BOOLEAN MODE) DESC",
+            countQuery = "SELECT COUNT(*) FROM comments WHERE MATCH(content) AGAINST (:search IN BOOLEAN MODE)",
+            nativeQuery = true)
+    Page<Long> fullTextSearchIds(String search, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"author", "post", "post.topic"})
+    List<Comment> findWithAuthorAndTopicByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new com.example.ufc.dto.CommentTotalsDto(COUNT(c), COUNT(DISTINCT c.author.id), "
+            + "COUNT(DISTINCT c.post.id)) FROM Comment c")
+    CommentTotalsDto findCommentTotals();
 }
 
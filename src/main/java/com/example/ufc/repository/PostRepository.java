@@ -3,9 +3,13 @@ package com.example.ufc.repository;
 import com.example.ufc.entity.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,11 +17,45 @@ public interface PostRepository extends JpaRepository<Post, Long> {
 
     List<Post> findByTopicId(Long topicId);
 
+    @EntityGraph(attributePaths = "author")
     Page<Post> findByTopicId(Long topicId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "author")
     List<Post> findByTopicIdOrderByCreatedAtAsc(Long topicId);
 
+    // Keyset pages of a topic's posts in (createdAt, id) order, served by idx_post_topic_created.
+    // The Pageable only carries the limit; the Before/Last variants walk backwards and return descending order.
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.topic.id = :topicId "
+            + "ORDER BY p.createdAt ASC, p.id ASC")
+    List<Post> findTopicPostsFirst(Long topicId, Pageable pageable);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.topic.id = :topicId "
+            + "AND (p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id)) "
+            + "ORDER BY p.createdAt ASC, p.id ASC")
+    List<Post> findTopicPostsAfter(Long topicId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.topic.id = :topicId "
+            + "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findTopicPostsBefore(Long topicId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.topic.id = :topicId "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findTopicPostsLast(Long topicId, Pageable pageable);
+
     List<Post> findByAuthorId(Long authorId);
 
+    // A user's posts, newest first, for the profile page; served by idx_post_author_created
+    @EntityGraph(attributePaths = "topic")
+    Page<Post> findByAuthorIdOrderByCreatedAtDesc(Long authorId, Pageable pageable);
+
     long countByTopicId(Long topicId);
-}
\ No newline at end of file
+
+    // Rows written since the search index snapshot, for catching it up on startup
+    Page<Post> findByUpdatedAtGreaterThanEqual(LocalDateTime since, Pageable pageable);
+
+    // Search hits of one page, with the author and topic shown in the results
+    @EntityGraph(attributePaths = {"author", "topic"})
+    List<Post> findByIdIn(Collection<Long> ids);
+}
@@ -1,44 +1,157 @@
 package com.example.ufc.repository;
 
+import com.example.ufc.dto.CategoryStatsDto;
+import com.example.ufc.dto.RecentTopicDto;
+import com.example.ufc.dto.TopicTotalsDto;
+import com.example.ufc.dto.TopicViewDto;
 import com.example.ufc.entity.Topic;
 import com.example.ufc.entity.TopicCategory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TopicRepository extends JpaRepository<Topic, Long> {
-    
+
+    // Listings and the topic page show the author and last poster of every topic; fetching them
+    // in the same query avoids one query per topic for each
+
+    @EntityGraph(attributePaths = {"author", "lastPostUser"})
     Page<Topic> findByCategory(TopicCategory category, Pageable pageable);
-    
+
+    @EntityGraph(attributePaths = {"author", "lastPostUser"})
     @Query("SELECT t FROM Topic t ORDER BY t.isPinned DESC, t.lastPostAt DESC")
     Page<Topic> findAllOrderByPinnedAndLastPost(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"author", "lastPostUser"})
+    @Query("SELECT t FROM Topic t WHERE t.id = :id")
+    Optional<Topic> findWithAuthorsById(Long id);
     
     List<Topic> findTop5ByOrderByCreatedAtDesc();
     
     @Query("SELECT COUNT(t) FROM Topic t")
     long countAllTopics();
 
+    // Replies update the topic row with one relative UPDATE instead of read-modify-write of the entity,
+    // so concurrent replies to a busy topic neither lose increments nor hold its lock for long.
+    // The last post only moves forward, whatever order concurrent replies commit in; lastPostUser is
+    // assigned first because MySQL evaluates SET left to right with already updated values. Native SQL,
+    // as JPQL cannot assign an association from a CASE.
+    @Modifying
+    @Query(value = "UPDATE topics SET reply_count = reply_count + 1, "
+            + "last_post_user_id = CASE WHEN last_post_at IS NULL OR last_post_at <= :postedAt "
+            + "THEN :userId ELSE last_post_user_id END, "
+            + "last_post_at = CASE WHEN last_post_at IS NULL OR last_post_at <= :postedAt "
+            + "THEN :postedAt ELSE last_post_at END "
+            + "WHERE id = :topicId", nativeQuery = true)
+    int recordReply(Long topicId, Long userId, LocalDateTime postedAt);
+
+    @Modifying
+    @Query("UPDATE Topic t SET t.replyCount = t.replyCount - 1 WHERE t.id = :topicId AND t.replyCount > 0")
+    int removeReply(Long topicId);
+
     // Admin repository methods
     long countByIsPinnedTrue();
     long countByIsLockedTrue();
     long countByCategory(TopicCategory category);
 
+    // One row per category that has topics
+    @Query("SELECT new com.example.ufc.dto.CategoryStatsDto(t.category, COUNT(t), SUM(t.replyCount), SUM(t.viewCount)) "
+            + "FROM Topic t GROUP BY t.category")
+    List<CategoryStatsDto> findCategoryStats();
+
     List<Topic> findAllByOrderByCreatedAtDesc();
     List<Topic> findByCategory(TopicCategory category);
 
     @Query("SELECT t FROM Topic t ORDER BY t.createdAt DESC")
     List<Topic> findRecentTopics(Pageable pageable);
 
+    // Read models for list pages: only the displayed columns, no TEXT content, no managed entities
+
+    String TOPIC_VIEW = "SELECT new com.example.ufc.dto.TopicViewDto(t.id, t.title, t.category, t.viewCount, "
+            + "t.replyCount, t.isPinned, t.isLocked, t.createdAt, t.lastPostAt, a.username, l.username) "
+            + "FROM Topic t JOIN t.author a LEFT JOIN t.lastPostUser l ";
+
+    @Query(value = TOPIC_VIEW + "ORDER BY t.isPinned DESC, t.lastPostAt DESC",
+            countQuery = "SELECT COUNT(t) FROM Topic t")
+    Page<TopicViewDto> findTopicViews(Pageable pageable);
+
+    @Query(value = TOPIC_VIEW + "WHERE t.category = :category ORDER BY t.isPinned DESC, t.lastPostAt DESC",
+            countQuery = "SELECT COUNT(t) FROM Topic t WHERE t.category = :category")
+    Page<TopicViewDto> findTopicViewsByCategory(TopicCategory category, Pageable pageable);
+
+    @Query(value = TOPIC_VIEW + "ORDER BY t.createdAt DESC",
+            countQuery = "SELECT COUNT(t) FROM Topic t")
+    Page<TopicViewDto> findAllTopicViewsByCreatedAtDesc(Pageable pageable);
+
+    @Query(value = TOPIC_VIEW + "WHERE t.category = :category ORDER BY t.createdAt DESC",
+            countQuery = "SELECT COUNT(t) FROM Topic t WHERE t.category = :category")
+    Page<TopicViewDto> findTopicViewsByCategoryByCreatedAtDesc(TopicCategory category, Pageable pageable);
+
+    // A user's topics, newest first, for the profile page; served by idx_topic_author_created
+    @Query(value = TOPIC_VIEW + "WHERE t.author.id = :authorId ORDER BY t.createdAt DESC",
+            countQuery = "SELECT COUNT(t) FROM Topic t WHERE t.author.id = :authorId")
+    Page<TopicViewDto> findTopicViewsByAuthorId(Long authorId, Pageable pageable);
+
+    // Header totals of the admin topic list
+
+    String TOPIC_TOTALS = "SELECT new com.example.ufc.dto.TopicTotalsDto(COUNT(t), "
+            + "SUM(CASE WHEN t.isPinned = true THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN t.isLocked = true THEN 1 ELSE 0 END), SUM(t.viewCount)) FROM Topic t ";
+
+    @Query(TOPIC_TOTALS)
+    TopicTotalsDto findTopicTotals();
+
+    @Query(TOPIC_TOTALS + "WHERE t.category = :category")
+    TopicTotalsDto findTopicTotalsByCategory(TopicCategory category);
+
+    @Query("SELECT new com.example.ufc.dto.RecentTopicDto(t.id, t.title, t.category, a.username, t.createdAt, "
+            + "t.replyCount, t.viewCount, t.isPinned) FROM Topic t JOIN t.author a ORDER BY t.createdAt DESC")
+    List<RecentTopicDto> findRecentTopicViews(Pageable pageable);
+
     default List<Topic> findRecentTopics(int limit) {
         return findRecentTopics(PageRequest.of(0, limit));
     }
 
     @Query("SELECT t FROM Topic t WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(t.content) LIKE LOWER(CONCAT('%', :search, '%'))")
     List<Topic> searchByTitleOrContent(String search);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = {"author", "lastPostUser"})
+    @Query(value = "SELECT t FROM Topic t WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')) "
+            + "OR LOWER(t.content) LIKE LOWER(CONCAT('%', :search, '%')) ORDER BY t.createdAt DESC",
+            countQuery = "SELECT COUNT(t) FROM Topic t WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')) "
+                    + "OR LOWER(t.content) LIKE LOWER(CONCAT('%', :search, '%'))")
+    Page<Topic> searchByTitleOrContent(String search, Pageable pageable);
+
+    // MySQL only: needs the ft_topics_title_content FULLTEXT index, see FullTextSearchBackend
+    @Query(value = "SELECT * FROM topics WHERE MATCH(title, content) AGAINST (:search IN BOOLEAN MODE) "
+            + "ORDER BY MATCH(title, content) AGAINST (:search IN BOOLEAN MODE) DESC", nativeQuery = true)
+    List<Topic> fullTextSearch(String search);
+
+    @Query(value = "SELECT * FROM topics WHERE MATCH(title, content) AGAINST (:search IN BOOLEAN MODE) "
+            + "ORDER BY MATCH(title, content) AGAINST (:search IN BOOLEAN MODE) DESC",
+            countQuery = "SELECT COUNT(*) FROM topics WHERE MATCH(title, content) AGAINST (:search IN BOOLEAN MODE)",
+            nativeQuery = true)
+    Page<Topic> fullTextSearch(String search, Pageable pageable);
+
+    // id, title, viewCount, replyCount for the suggestion index; skips loading topic content
+    @Query("SELECT t.id, t.title, t.viewCount, t.replyCount FROM Topic t")
+    List<Object[]> findSuggestionRows();
+
+    // Rows written since the search index snapshot, for catching it up on startup
+    Page<Topic> findByUpdatedAtGreaterThanEqual(LocalDateTime since, Pageable pageable);
+
+    // Search hits of one page, with the author shown in the results
+    @EntityGraph(attributePaths = {"author"})
+    List<Topic> findByIdIn(Collection<Long> ids);
+}
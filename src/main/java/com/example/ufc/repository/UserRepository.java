@@ -4,9 +4,13 @@ import com.example.ufc.entity.Role;
 import com.example.ufc.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,17 +24,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.isActive = true")
     long countActiveUsers();
 
-    @Query("SELECT COUNT(t) FROM Topic t WHERE t.author.id = :userId")
-    long countTopicsByUserId(Long userId);
+    // Denormalized counters: only changed by these relative updates, so concurrent writers never lose increments
+    @Modifying
+    @Query("UPDATE User u SET u.topicCount = u.topicCount + :topics, u.postCount = u.postCount + :posts, "
+            + "u.reputation = u.reputation + :reputation WHERE u.id = :userId")
+    int adjustCounters(Long userId, int topics, int posts, int reputation);
 
-    @Query("SELECT COUNT(p) FROM Post p WHERE p.author.id = :userId")
-    long countPostsByUserId(Long userId);
+    // id, stored topic count, stored post count, actual topic count, actual post count; read in one
+    // statement so stored and actual values come from the same snapshot
+    @Query("SELECT u.id, u.topicCount, u.postCount, "
+            + "(SELECT COUNT(t) FROM Topic t WHERE t.author = u), (SELECT COUNT(p) FROM Post p WHERE p.author = u) "
+            + "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findCounterRows(Long afterId, Pageable pageable);
 
     // Admin repository methods
     long countByIsActiveTrue();
     long countByIsActiveFalse();
 
-    @Query("SELECT COUNT(u) FROM User u WHERE DATE(u.createdAt) = CURRENT_DATE")
+    @Query("SELECT COUNT(u) FROM User u WHERE CAST(u.createdAt AS date) = CURRENT_DATE")
     long countNewUsersToday();
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.createdAt >= CURRENT_DATE - 7 DAY")
@@ -39,7 +50,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.createdAt >= CURRENT_DATE - 30 DAY")
     long countNewUsersThisMonth();
 
-    List<User> findAllByOrderByCreatedAtDesc();
+    Page<User> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
     @Query("SELECT u FROM User u ORDER BY u.createdAt DESC")
     List<User> findTopByOrderByCreatedAtDesc(org.springframework.data.domain.Pageable pageable);
@@ -48,11 +59,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
         return findTopByOrderByCreatedAtDesc(PageRequest.of(0, limit));
     }
 
-    @Query("SELECT u FROM User u WHERE LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))")
-    List<User> searchByUsernameOrEmail(String search);
+    @Query(value = "SELECT u FROM User u WHERE LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) "
+            + "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) ORDER BY u.createdAt DESC",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) "
+                    + "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))")
+    Page<User> searchByUsernameOrEmail(String search, Pageable pageable);
 
-    List<User> findByRole(Role role);
-    List<User> findByIsActiveFalse();
+    Page<User> findByRoleOrderByCreatedAtDesc(Role role, Pageable pageable);
+    Page<User> findByIsActiveFalseOrderByCreatedAtDesc(Pageable pageable);
 
     @Query("SELECT u FROM User u LEFT JOIN u.topics t GROUP BY u.id ORDER BY COUNT(t) DESC")
     List<User> findTopPosters(org.springframework.data.domain.Pageable pageable);
@@ -60,4 +74,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     default List<User> findTopPosters(int limit) {
         return findTopPosters(PageRequest.of(0, limit));
     }
-}
\ No newline at end of file
+
+    // id, username, reputation of active users for the suggestion index
+    @Query("SELECT u.id, u.username, u.reputation FROM User u WHERE u.isActive = true")
+    List<Object[]> findSuggestionRows();
+
+    // Rows written since the search index snapshot, for catching it up on startup
+    Page<User> findByUpdatedAtGreaterThanEqual(LocalDateTime since, Pageable pageable);
+}
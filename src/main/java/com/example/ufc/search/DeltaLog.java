@@ -0,0 +1,162 @@
+package com.example.ufc.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only log of the index and remove operations applied since the last {@link Segment} was written.
+ * Replaying it on top of the segment restores the index as it was at shutdown.
+ * Records are flushed to the OS as they are written; a torn record at the tail (crash mid-write)
+ * is discarded on replay.
+ */
+final class DeltaLog implements Closeable {
+
+    private static final byte OP_INDEX = 1;
+    private static final byte OP_REMOVE = 2;
+
+    private final DataOutputStream out;
+
+    private DeltaLog(DataOutputStream out) {
+        this.out = out;
+    }
+
+    static DeltaLog open(Path path) throws IOException {
+        return new DeltaLog(new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND))));
+    }
+
+    void appendIndex(long id, Map<String, Float> termFrequencies, Map<String, int[]> termOffsets,
+                     long createdAt) throws IOException {
+        out.writeByte(OP_INDEX);
+        out.writeLong(id);
+        out.writeLong(createdAt);
+        out.writeInt(termFrequencies.size());
+        for (Map.Entry<String, Float> entry : termFrequencies.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeFloat(entry.getValue());
+            int[] offsets = termOffsets.get(entry.getKey());
+            out.writeInt(offsets != null ? offsets.length : 0);
+            if (offsets != null) {
+                for (int offset : offsets) {
+                    out.writeInt(offset);
+                }
+            }
+        }
+        out.flush();
+    }
+
+    void appendRemove(long id) throws IOException {
+        out.writeByte(OP_REMOVE);
+        out.writeLong(id);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Feeds every complete record in the log to {@code target}, in order, and truncates a torn
+     * record at the tail so later appends start on a record boundary.
+     *
+     * @return the number of records replayed
+     */
+    static int replay(Path path, Target target) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        int replayed = 0;
+        long validLength = 0;
+        boolean torn = false;
+        CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(path)));
+        try (DataInputStream in = new DataInputStream(counter)) {
+            while (true) {
+                int op = in.read();
+                if (op == -1) {
+                    break;
+                }
+                if (op == OP_INDEX) {
+                    long id = in.readLong();
+                    long createdAt = in.readLong();
+                    int termCount = in.readInt();
+                    Map<String, Float> termFrequencies = new HashMap<>(termCount * 2);
+                    Map<String, int[]> termOffsets = new HashMap<>();
+                    for (int i = 0; i < termCount; i++) {
+                        String term = in.readUTF();
+                        termFrequencies.put(term, in.readFloat());
+                        int offsetCount = in.readInt();
+                        if (offsetCount > 0) {
+                            int[] offsets = new int[offsetCount];
+                            for (int j = 0; j < offsetCount; j++) {
+                                offsets[j] = in.readInt();
+                            }
+                            termOffsets.put(term, offsets);
+                        }
+                    }
+                    target.index(id, termFrequencies, termOffsets, createdAt);
+                } else if (op == OP_REMOVE) {
+                    target.remove(in.readLong());
+                } else {
+                    throw new IOException("Corrupt search delta log: unknown operation " + op);
+                }
+                replayed++;
+                validLength = counter.count;
+            }
+        } catch (EOFException e) {
+            torn = true;
+        }
+
+        if (torn) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        return replayed;
+    }
+
+    interface Target {
+        void index(long id, Map<String, Float> termFrequencies, Map<String, int[]> termOffsets, long createdAt);
+
+        void remove(long id);
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
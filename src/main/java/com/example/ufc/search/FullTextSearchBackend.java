@@ -0,0 +1,176 @@
+package com.example.ufc.search;
+
+import com.example.ufc.entity.Comment;
+import com.example.ufc.entity.Topic;
+import com.example.ufc.repository.CommentRepository;
+import com.example.ufc.repository.TopicRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MySQL {@code MATCH ... AGAINST} search over FULLTEXT indexes built with the ngram parser, which
+ * tokenizes Cyrillic without word lists and keeps substring-like matching: every query word becomes
+ * a quoted boolean-mode phrase, i.e. a run of consecutive ngrams.
+ * <p>
+ * The schema is managed by Hibernate, which cannot declare FULLTEXT indexes, so missing ones are
+ * created once the application is ready. Until they exist (or if the database user may not create
+ * them) searches fall back to {@code LIKE}.
+ * <p>
+ * The indexes are built with InnoDB's stopword list switched off. With the ngram parser the list is
+ * matched against ngrams, not words, so any ngram equal to a stopword ("a", "at", "to", ...) is never
+ * indexed, and phrases containing one can't match. Indexes created with stopwords on have to be
+ * dropped to be rebuilt without them.
+ */
+@Component
+@ConditionalOnProperty(name = "search.text.backend", havingValue = "fulltext")
+public class FullTextSearchBackend implements TextSearchBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(FullTextSearchBackend.class);
+
+    // table, index name, columns; the column lists must match the MATCH(...) clauses in the repositories
+    private static final String[][] INDEXES = {
+            {"topics", "ft_topics_title_content", "title, content"},
+            {"comments", "ft_comments_content", "content"}
+    };
+
+    // Characters with a meaning in boolean mode; user input must not be able to use them
+    private static final String BOOLEAN_OPERATORS = "[+\\-<>()~*\"@]";
+
+    private final TopicRepository topicRepository;
+    private final CommentRepository commentRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean indexed;
+
+    @Autowired
+    public FullTextSearchBackend(TopicRepository topicRepository, CommentRepository commentRepository,
+                                 JdbcTemplate jdbcTemplate) {
+        this.topicRepository = topicRepository;
+        this.commentRepository = commentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        boolean complete = true;
+        for (String[] index : INDEXES) {
+            complete &= ensureIndex(index[0], index[1], index[2]);
+        }
+        indexed = complete;
+    }
+
+    @Override
+    public List<Topic> searchTopics(String search) {
+        if (!indexed) {
+            return topicRepository.searchByTitleOrContent(search);
+        }
+        String query = toBooleanQuery(search);
+        return query.isEmpty() ? List.of() : topicRepository.fullTextSearch(query);
+    }
+
+    @Override
+    public Page<Topic> searchTopics(String search, Pageable pageable) {
+        if (!indexed) {
+            return topicRepository.searchByTitleOrContent(search, pageable);
+        }
+        String query = toBooleanQuery(search);
+        return query.isEmpty() ? Page.empty(pageable) : topicRepository.fullTextSearch(query, pageable);
+    }
+
+    @Override
+    public Page<Comment> searchComments(String search, Pageable pageable) {
+        if (!indexed) {
+            return commentRepository.searchByContent(search, pageable);
+        }
+        String query = toBooleanQuery(search);
+        if (query.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Page<Long> ids = commentRepository.fullTextSearchIds(query, pageable);
+        Map<Long, Comment> loaded = new HashMap<>();
+        for (Comment comment : commentRepository.findWithAuthorAndTopicByIdIn(ids.getContent())) {
+            loaded.put(comment.getId(), comment);
+        }
+        // In relevance order; a comment deleted between the two queries is left out
+        List<Comment> comments = new ArrayList<>(ids.getNumberOfElements());
+        for (Long id : ids) {
+            Comment comment = loaded.get(id);
+            if (comment != null) {
+                comments.add(comment);
+            }
+        }
+        return new PageImpl<>(comments, pageable, ids.getTotalElements());
+    }
+
+    /**
+     * "хабиб срещу" becomes {@code +"хабиб" +"срещу"}: every word required, each matched as a phrase.
+     */
+    static String toBooleanQuery(String search) {
+        StringBuilder query = new StringBuilder();
+        for (String word : search.trim().split("\\s+")) {
+            String cleaned = word.replaceAll(BOOLEAN_OPERATORS, "");
+            if (!cleaned.isEmpty()) {
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                query.append("+\"").append(cleaned).append('"');
+            }
+        }
+        return query.toString();
+    }
+
+    private boolean ensureIndex(String table, String name, String columns) {
+        String ddl = "ALTER TABLE " + table + " ADD FULLTEXT INDEX " + name + " (" + columns + ") WITH PARSER ngram";
+        String manual = "SET SESSION innodb_ft_enable_stopword = OFF; " + ddl;
+        try {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics "
+                            + "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?",
+                    Integer.class, table, name);
+            if (existing != null && existing > 0) {
+                return true;
+            }
+            long start = System.currentTimeMillis();
+            // The stopword setting is read when the index is built, from the session that builds it; the
+            // connection goes back to the pool afterwards, so its previous value is put back
+            jdbcTemplate.execute((StatementCallback<Void>) statement -> {
+                String previous;
+                try (ResultSet rs = statement.executeQuery("SELECT @@SESSION.innodb_ft_enable_stopword")) {
+                    rs.next();
+                    previous = rs.getString(1);
+                }
+                statement.execute("SET SESSION innodb_ft_enable_stopword = OFF");
+                try {
+                    statement.execute(ddl);
+                } finally {
+                    statement.execute("SET SESSION innodb_ft_enable_stopword = " + ("0".equals(previous) ? "OFF" : "ON"));
+                }
+                return null;
+            });
+            logger.info("Created FULLTEXT index {} on {} in {} ms", name, table, System.currentTimeMillis() - start);
+            return true;
+        } catch (DataAccessException e) {
+            logger.error("Could not create FULLTEXT index {}, falling back to LIKE search. Run manually: {}",
+                    name, manual, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.ufc.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Builds result excerpts around the densest cluster of query matches, using match offsets from the
+ * index. Only the chosen window of the text is read, so the cost doesn't grow with document length.
+ */
+public final class Highlighter {
+
+    private static final String ELLIPSIS = "...";
+    // How far an excerpt edge may move to avoid cutting a word in half
+    private static final int WORD_BOUNDARY_SLACK = 20;
+
+    private Highlighter() {
+    }
+
+    /**
+     * HTML excerpt of at most about {@code maxLength} characters with each match wrapped in {@code <mark>}.
+     * All text is escaped, so the result is safe to render unescaped.
+     *
+     * @param matches (start, end) offset pairs sorted by start; may be empty
+     */
+    public static String excerpt(String text, int[] matches, int maxLength) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        int length = text.length();
+        int pairs = validPairs(matches, length);
+
+        // Largest run of matches that fits in one window (two pointers over the sorted pairs)
+        int bestFirst = 0;
+        int bestCount = 0;
+        int first = 0;
+        for (int last = 0; last < pairs; last++) {
+            while (matches[last * 2 + 1] - matches[first * 2] > maxLength) {
+                first++;
+            }
+            if (last - first + 1 > bestCount) {
+                bestCount = last - first + 1;
+                bestFirst = first;
+            }
+        }
+
+        int start = 0;
+        if (bestCount > 0) {
+            int spanStart = matches[bestFirst * 2];
+            int spanEnd = matches[(bestFirst + bestCount - 1) * 2 + 1];
+            // Centre the matches, then keep the window inside the text
+            start = Math.max(0, spanStart - (maxLength - (spanEnd - spanStart)) / 2);
+            start = Math.max(0, Math.min(start, length - maxLength));
+            if (start > 0) {
+                start = nextWordStart(text, start, Math.min(spanStart, start + WORD_BOUNDARY_SLACK));
+            }
+        }
+        int end = Math.min(length, start + maxLength);
+        if (end < length) {
+            int lastMatchEnd = bestCount > 0 ? matches[(bestFirst + bestCount - 1) * 2 + 1] : start;
+            end = previousWordEnd(text, end, Math.max(lastMatchEnd, end - WORD_BOUNDARY_SLACK));
+        }
+
+        StringBuilder html = new StringBuilder(end - start + 32);
+        if (start > 0) {
+            html.append(ELLIPSIS);
+        }
+        int position = start;
+        for (int i = 0; i < pairs; i++) {
+            int matchStart = matches[i * 2];
+            int matchEnd = matches[i * 2 + 1];
+            if (matchStart < position || matchEnd > end) {
+                continue;
+            }
+            html.append(HtmlUtils.htmlEscape(text.substring(position, matchStart)))
+                    .append("<mark>")
+                    .append(HtmlUtils.htmlEscape(text.substring(matchStart, matchEnd)))
+                    .append("</mark>");
+            position = matchEnd;
+        }
+        html.append(HtmlUtils.htmlEscape(text.substring(position, end)));
+        if (end < length) {
+            html.append(ELLIPSIS);
+        }
+        return html.toString();
+    }
+
+    // Offsets come from the index and may be stale if the text changed without a reindex; stop at the first bad pair
+    private static int validPairs(int[] matches, int length) {
+        int pairs = 0;
+        int previousEnd = 0;
+        while (pairs * 2 + 1 < matches.length) {
+            int start = matches[pairs * 2];
+            int end = matches[pairs * 2 + 1];
+            if (start < previousEnd || end <= start || end > length) {
+                break;
+            }
+            previousEnd = end;
+            pairs++;
+        }
+        return pairs;
+    }
+
+    private static int nextWordStart(String text, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return from;
+    }
+
+    private static int previousWordEnd(String text, int from, int limit) {
+        for (int i = from; i > limit; i--) {
+            if (Character.isWhitespace(text.charAt(i - 1))) {
+                return i - 1;
+            }
+        }
+        return from;
+    }
+}
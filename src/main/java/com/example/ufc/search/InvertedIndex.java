@@ -0,0 +1,937 @@
+package com.example.ufc.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index for one document type (term -> posting list of IDs).
+ * Hits are ranked with BM25 and a recency boost.
+ * <p>
+ * When given a directory, the bulk of the index lives in a memory-mapped {@link Segment} written
+ * by {@link #snapshot()}. Changes since then are held in small on-heap posting lists, recorded in a
+ * {@link DeltaLog} and masked out of the segment with a deleted-documents bitmap, so a restart only
+ * has to map the latest segment and replay the log. Without a directory everything stays on-heap.
+ */
+public class InvertedIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvertedIndex.class);
+
+    // BM25 parameters (standard defaults)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Brand-new documents score up to (1 + RECENCY_BOOST) times higher; the boost halves every half-life
+    private static final double RECENCY_BOOST = 1.0;
+    private static final double RECENCY_HALF_LIFE_SECONDS = 30 * 24 * 60 * 60;
+
+    // In fuzzy searches every edit halves a matching term's score, so exact spellings rank first
+    private static final double FUZZY_EDIT_PENALTY = 0.5;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String LOG_SUFFIX = ".delta";
+
+    private final Path directory;
+    private final String name;
+
+    // Documents indexed since the segment was written
+    private final NavigableMap<String, PostingList> dictionary = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private Segment segment;
+    private BitSet deleted = new BitSet();
+    private int deletedCount;
+    private long generation;
+    private DeltaLog log;
+    private int pendingChanges;
+
+    // Readers take the read lock; writers and snapshots serialise on writeMutex first, so a snapshot
+    // can read a stable index while searches keep running
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock writeMutex = new ReentrantLock();
+    private double totalLength;
+
+    public InvertedIndex() {
+        this(null, null);
+    }
+
+    /**
+     * @param directory where segments and delta logs are kept, or {@code null} for a purely in-memory index
+     * @param name      file name prefix, unique per index within the directory
+     */
+    public InvertedIndex(Path directory, String name) {
+        this.directory = directory;
+        this.name = name;
+    }
+
+    /**
+     * Adds the document or replaces its previously indexed terms.
+     *
+     * @param termFrequencies weighted frequency of each term (field boosts already applied)
+     * @param termOffsets     (start, end) character offset pairs of each term in the document body,
+     *                        for highlighting; terms that only occur elsewhere (e.g. a title) may be absent
+     * @param createdAt       creation time in epoch seconds, used for recency decay
+     */
+    public void index(long id, Map<String, Float> termFrequencies, Map<String, int[]> termOffsets, long createdAt) {
+        writeMutex.lock();
+        try {
+            if (log != null) {
+                try {
+                    log.appendIndex(id, termFrequencies, termOffsets, createdAt);
+                } catch (IOException e) {
+                    abandonLog(e);
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                apply(id, termFrequencies, termOffsets, createdAt);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            writeMutex.unlock();
+        }
+    }
+
+    public void remove(long id) {
+        writeMutex.lock();
+        try {
+            if (log != null) {
+                try {
+                    log.appendRemove(id);
+                } catch (IOException e) {
+                    abandonLog(e);
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                unlink(id);
+                pendingChanges++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            writeMutex.unlock();
+        }
+    }
+
+    /**
+     * Empties the index and detaches it from its segment and delta log. Files on disk are left alone
+     * until the next {@link #snapshot()} supersedes them.
+     */
+    public void clear() {
+        writeMutex.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                dictionary.clear();
+                documents.clear();
+                segment = null;
+                deleted = new BitSet();
+                deletedCount = 0;
+                totalLength = 0;
+                closeLog();
+                pendingChanges++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            writeMutex.unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether anything changed since the last snapshot (or load), i.e. whether a snapshot would do work.
+     */
+    public boolean hasPendingChanges() {
+        lock.readLock().lock();
+        try {
+            return pendingChanges > 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Persistence
+
+    /**
+     * Maps the newest segment in the directory and replays its delta log on top of it.
+     *
+     * @return {@code false} if there is no segment to load; the index is left empty
+     */
+    public boolean load() throws IOException {
+        if (directory == null) {
+            return false;
+        }
+        writeMutex.lock();
+        try {
+            long latest = latestGeneration();
+            if (latest < 0) {
+                return false;
+            }
+            Segment opened = Segment.open(segmentPath(latest));
+
+            lock.writeLock().lock();
+            try {
+                dictionary.clear();
+                documents.clear();
+                deleted = new BitSet();
+                deletedCount = 0;
+                closeLog();
+
+                segment = opened;
+                generation = latest;
+                totalLength = 0;
+                for (int ordinal = 0; ordinal < opened.docCount(); ordinal++) {
+                    totalLength += opened.docLength(ordinal);
+                }
+
+                pendingChanges = DeltaLog.replay(logPath(latest), new DeltaLog.Target() {
+                    @Override
+                    public void index(long id, Map<String, Float> termFrequencies, Map<String, int[]> termOffsets,
+                                      long createdAt) {
+                        apply(id, termFrequencies, termOffsets, createdAt);
+                    }
+
+                    @Override
+                    public void remove(long id) {
+                        unlink(id);
+                    }
+                });
+                log = DeltaLog.open(logPath(latest));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        } finally {
+            writeMutex.unlock();
+        }
+    }
+
+    /**
+     * Writes the whole index to a new segment, maps it in place of the current state and starts an
+     * empty delta log. Searches continue while the segment is written; writers wait.
+     */
+    public void snapshot() throws IOException {
+        if (directory == null) {
+            return;
+        }
+        writeMutex.lock();
+        try {
+            Files.createDirectories(directory);
+            // Files of a generation that was never loaded (e.g. rejected as stale) must not be overwritten
+            long next = Math.max(generation, latestGeneration()) + 1;
+            Path target = segmentPath(next);
+            Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+            // No writer can run while we hold writeMutex, so reading without the read lock is safe
+            writeSegment(temp);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+
+            Segment opened = Segment.open(target);
+            DeltaLog nextLog = DeltaLog.open(logPath(next));
+
+            lock.writeLock().lock();
+            try {
+                closeLog();
+                segment = opened;
+                dictionary.clear();
+                documents.clear();
+                deleted = new BitSet();
+                deletedCount = 0;
+                generation = next;
+                log = nextLog;
+                pendingChanges = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            deleteGenerationsBefore(next);
+        } finally {
+            writeMutex.unlock();
+        }
+    }
+
+    /**
+     * Closes the delta log. The index stays searchable but further changes are no longer recorded.
+     */
+    public void close() {
+        writeMutex.lock();
+        try {
+            closeLog();
+        } finally {
+            writeMutex.unlock();
+        }
+    }
+
+    // Searching
+
+    /**
+     * Returns the best {@code limit} documents containing every query term that rank after {@code after}.
+     * Each query term matches any indexed term it is a prefix of, so partial words still hit.
+     * The cost depends on the number of matches, not on how deep the requested page is.
+     *
+     * @param after cursor from the previous page, or {@code null} for the first page
+     * @param now   reference time in epoch seconds for recency decay (the cursor's time wins when given)
+     */
+    public SearchHits search(List<String> queryTerms, SearchCursor after, int limit, long now) {
+        return search(queryTerms, after, limit, now, false);
+    }
+
+    /**
+     * As {@link #search(List, SearchCursor, int, long)}; when {@code fuzzy} is set a query term also
+     * matches indexed terms within a small edit distance of it, see {@link LevenshteinAutomaton}.
+     */
+    public SearchHits search(List<String> queryTerms, SearchCursor after, int limit, long now, boolean fuzzy) {
+        long asOf = after != null ? after.getAsOf() : now;
+        if (queryTerms.isEmpty()) {
+            return new SearchHits(new long[0], new float[0], false, asOf);
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = liveCount();
+            double averageLength = documentCount == 0 ? 0 : totalLength / documentCount;
+
+            ScoredIds candidates = null;
+            for (String queryTerm : new LinkedHashSet<>(queryTerms)) {
+                ScoredIds matches = fuzzy
+                        ? scoreFuzzy(queryTerm, documentCount, averageLength)
+                        : scorePrefix(queryTerm, documentCount, averageLength);
+                candidates = candidates == null ? matches : ScoredIds.intersectSum(candidates, matches);
+                if (candidates.size == 0) {
+                    break;
+                }
+            }
+
+            return topHits(candidates, after, limit, asOf);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Character offsets of every body occurrence of the query terms (expanded as in {@link #search})
+     * in one document, as (start, end) pairs sorted by start. Only the postings of that document are read,
+     * so the cost depends on the number of matching terms, not on the document's length.
+     */
+    public int[] matchOffsets(long id, List<String> queryTerms, boolean fuzzy) {
+        lock.readLock().lock();
+        try {
+            // A live document is in exactly one layer
+            int ordinal = -1;
+            if (!documents.containsKey(id)) {
+                ordinal = segment != null ? segment.ordinalOf(id) : -1;
+                if (ordinal < 0 || deleted.get(ordinal)) {
+                    return new int[0];
+                }
+            }
+
+            List<int[]> found = new ArrayList<>();
+            for (String queryTerm : new LinkedHashSet<>(queryTerms)) {
+                List<String> terms = ordinal < 0
+                        ? heapExpansions(queryTerm, fuzzy)
+                        : segmentExpansions(queryTerm, fuzzy);
+                for (String term : terms) {
+                    int[] offsets;
+                    if (ordinal < 0) {
+                        PostingList postings = dictionary.get(term);
+                        int posting = postings.indexOf(id);
+                        offsets = posting >= 0 ? postings.offsets(posting) : null;
+                    } else {
+                        int segmentTerm = segment.lowerBound(term);
+                        int posting = segment.findPosting(segmentTerm, ordinal);
+                        offsets = posting >= 0 ? segment.postingOffsets(segmentTerm, posting) : null;
+                    }
+                    if (offsets != null) {
+                        found.add(offsets);
+                    }
+                }
+            }
+            return sortedPairs(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Merges offset pair arrays into one array sorted by start, dropping duplicates
+    private static int[] sortedPairs(List<int[]> pairArrays) {
+        int pairCount = 0;
+        for (int[] pairs : pairArrays) {
+            pairCount += pairs.length / 2;
+        }
+        long[] packed = new long[pairCount];
+        int count = 0;
+        for (int[] pairs : pairArrays) {
+            for (int i = 0; i + 1 < pairs.length; i += 2) {
+                packed[count++] = ((long) pairs[i] << 32) | (pairs[i + 1] & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(packed);
+
+        int[] result = new int[pairCount * 2];
+        int size = 0;
+        for (int i = 0; i < pairCount; i++) {
+            if (i > 0 && packed[i] == packed[i - 1]) {
+                continue;
+            }
+            result[size++] = (int) (packed[i] >>> 32);
+            result[size++] = (int) packed[i];
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private SearchHits topHits(ScoredIds candidates, SearchCursor after, int limit, long asOf) {
+        long[] topIds = new long[limit];
+        float[] topScores = new float[limit];
+        int count = 0;
+        int remaining = 0;
+
+        for (int i = 0; i < candidates.size; i++) {
+            long id = candidates.ids[i];
+            float score = (float) (candidates.scores[i] * recencyFactor(createdAt(id), asOf));
+            if (after != null && !after.isBefore(score, id)) {
+                continue;
+            }
+            remaining++;
+
+            if (count == limit && !ranksHigher(score, id, topScores[count - 1], topIds[count - 1])) {
+                continue;
+            }
+
+            // Insertion into the small sorted top-N buffer
+            int position = count < limit ? count++ : count - 1;
+            while (position > 0 && ranksHigher(score, id, topScores[position - 1], topIds[position - 1])) {
+                topIds[position] = topIds[position - 1];
+                topScores[position] = topScores[position - 1];
+                position--;
+            }
+            topIds[position] = id;
+            topScores[position] = score;
+        }
+
+        if (count < limit) {
+            topIds = Arrays.copyOf(topIds, count);
+            topScores = Arrays.copyOf(topScores, count);
+        }
+        return new SearchHits(topIds, topScores, remaining > count, asOf);
+    }
+
+    private static boolean ranksHigher(float score, long id, float otherScore, long otherId) {
+        return score > otherScore || (score == otherScore && id > otherId);
+    }
+
+    private static double recencyFactor(long createdAt, long now) {
+        double age = Math.max(0, now - createdAt);
+        return 1 + RECENCY_BOOST * Math.pow(0.5, age / RECENCY_HALF_LIFE_SECONDS);
+    }
+
+    /**
+     * BM25 scores for every document matching the query term, taking the best expansion per document.
+     * Expansions are found by walking the on-heap dictionary and the segment's term table side by side.
+     */
+    private ScoredIds scorePrefix(String prefix, int documentCount, double averageLength) {
+        List<ScoredIds> expansions = new ArrayList<>();
+
+        Iterator<Map.Entry<String, PostingList>> heapTerms = dictionary.tailMap(prefix, true).entrySet().iterator();
+        Map.Entry<String, PostingList> heapTerm = nextWithPrefix(heapTerms, prefix);
+        int segmentTerm = segment != null ? segment.lowerBound(prefix) : 0;
+
+        while (true) {
+            boolean inSegment = segment != null && segmentTerm < segment.termCount()
+                    && segment.termStartsWith(segmentTerm, prefix);
+            if (!inSegment && heapTerm == null) {
+                break;
+            }
+            // < 0: only the segment has the next term, > 0: only the heap, 0: both
+            int order = heapTerm == null ? -1 : !inSegment ? 1 : segment.compareTerm(segmentTerm, heapTerm.getKey());
+
+            ScoredIds scored = scoreTerm(order >= 0 ? heapTerm.getValue() : null,
+                    order <= 0 ? segmentTerm : -1, documentCount, averageLength);
+            if (scored.size > 0) {
+                expansions.add(scored);
+            }
+
+            if (order >= 0) {
+                heapTerm = nextWithPrefix(heapTerms, prefix);
+            }
+            if (order <= 0) {
+                segmentTerm++;
+            }
+        }
+
+        return mergeExpansions(expansions);
+    }
+
+    /**
+     * Like {@link #scorePrefix}, but expansions also include terms within the automaton's edit distance,
+     * scored lower the more edits they need. Each layer's dictionary is intersected with the automaton
+     * separately and the matches are then paired up by term, as the layers share document frequencies.
+     */
+    private ScoredIds scoreFuzzy(String queryTerm, int documentCount, double averageLength) {
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton(queryTerm,
+                LevenshteinAutomaton.maxEditsFor(queryTerm));
+
+        // term -> {distance, segment term index or -1}
+        TreeMap<String, int[]> matches = new TreeMap<>();
+        automaton.intersect(dictionary::ceilingKey, (term, distance) -> matches.put(term, new int[]{distance, -1}));
+        if (segment != null) {
+            automaton.intersect(this::segmentCeiling, (term, distance) ->
+                    matches.computeIfAbsent(term, t -> new int[]{distance, -1})[1] = segment.lowerBound(term));
+        }
+
+        List<ScoredIds> expansions = new ArrayList<>();
+        for (Map.Entry<String, int[]> match : matches.entrySet()) {
+            ScoredIds scored = scoreTerm(dictionary.get(match.getKey()), match.getValue()[1],
+                    documentCount, averageLength);
+            int distance = match.getValue()[0];
+            if (distance > 0) {
+                float weight = (float) Math.pow(FUZZY_EDIT_PENALTY, distance);
+                for (int i = 0; i < scored.size; i++) {
+                    scored.scores[i] *= weight;
+                }
+            }
+            if (scored.size > 0) {
+                expansions.add(scored);
+            }
+        }
+        return mergeExpansions(expansions);
+    }
+
+    private static ScoredIds mergeExpansions(List<ScoredIds> expansions) {
+        if (expansions.isEmpty()) {
+            return ScoredIds.EMPTY;
+        }
+        // Pairwise merging keeps the total work at O(n log k) for k expansions
+        while (expansions.size() > 1) {
+            List<ScoredIds> merged = new ArrayList<>((expansions.size() + 1) / 2);
+            for (int i = 0; i < expansions.size(); i += 2) {
+                merged.add(i + 1 < expansions.size()
+                        ? ScoredIds.unionMax(expansions.get(i), expansions.get(i + 1))
+                        : expansions.get(i));
+            }
+            expansions = merged;
+        }
+        return expansions.get(0);
+    }
+
+    private List<String> heapExpansions(String queryTerm, boolean fuzzy) {
+        List<String> terms = new ArrayList<>();
+        if (fuzzy) {
+            new LevenshteinAutomaton(queryTerm, LevenshteinAutomaton.maxEditsFor(queryTerm))
+                    .intersect(dictionary::ceilingKey, (term, distance) -> terms.add(term));
+        } else {
+            for (String term : dictionary.tailMap(queryTerm, true).keySet()) {
+                if (!term.startsWith(queryTerm)) {
+                    break;
+                }
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private List<String> segmentExpansions(String queryTerm, boolean fuzzy) {
+        List<String> terms = new ArrayList<>();
+        if (fuzzy) {
+            new LevenshteinAutomaton(queryTerm, LevenshteinAutomaton.maxEditsFor(queryTerm))
+                    .intersect(this::segmentCeiling, (term, distance) -> terms.add(term));
+        } else {
+            for (int term = segment.lowerBound(queryTerm);
+                 term < segment.termCount() && segment.termStartsWith(term, queryTerm); term++) {
+                terms.add(segment.term(term));
+            }
+        }
+        return terms;
+    }
+
+    private String segmentCeiling(String from) {
+        int term = segment.lowerBound(from);
+        return term < segment.termCount() ? segment.term(term) : null;
+    }
+
+    private static Map.Entry<String, PostingList> nextWithPrefix(Iterator<Map.Entry<String, PostingList>> terms,
+                                                                 String prefix) {
+        if (!terms.hasNext()) {
+            return null;
+        }
+        Map.Entry<String, PostingList> entry = terms.next();
+        return entry.getKey().startsWith(prefix) ? entry : null;
+    }
+
+    /**
+     * Scores one term's postings from either or both layers. The two layers never share a live document.
+     */
+    private ScoredIds scoreTerm(PostingList heapPostings, int segmentTerm, int documentCount, double averageLength) {
+        int segmentSize = segmentTerm >= 0 ? segment.postingCount(segmentTerm) : 0;
+        long[] segmentIds = new long[segmentSize];
+        float[] segmentScores = new float[segmentSize];
+        float[] segmentLengths = new float[segmentSize];
+        int live = 0;
+        for (int i = 0; i < segmentSize; i++) {
+            int ordinal = segment.postingOrdinal(segmentTerm, i);
+            if (deleted.get(ordinal)) {
+                continue;
+            }
+            segmentIds[live] = segment.docId(ordinal);
+            segmentScores[live] = segment.postingFrequency(segmentTerm, i);
+            segmentLengths[live] = segment.docLength(ordinal);
+            live++;
+        }
+
+        int heapSize = heapPostings != null ? heapPostings.size() : 0;
+        int n = live + heapSize;
+        double idf = Math.log(1 + (documentCount - n + 0.5) / (n + 0.5));
+
+        for (int i = 0; i < live; i++) {
+            segmentScores[i] = bm25(idf, segmentScores[i], segmentLengths[i], averageLength);
+        }
+        ScoredIds fromSegment = new ScoredIds(segmentIds, segmentScores, live);
+        if (heapSize == 0) {
+            return fromSegment;
+        }
+
+        long[] heapIds = new long[heapSize];
+        float[] heapScores = new float[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            heapIds[i] = heapPostings.id(i);
+            heapScores[i] = bm25(idf, heapPostings.frequency(i), heapPostings.length(i), averageLength);
+        }
+        ScoredIds fromHeap = new ScoredIds(heapIds, heapScores, heapSize);
+        return live == 0 ? fromHeap : ScoredIds.unionMax(fromSegment, fromHeap);
+    }
+
+    private static float bm25(double idf, double tf, double length, double averageLength) {
+        double norm = K1 * (1 - B + B * length / averageLength);
+        return (float) (idf * tf * (K1 + 1) / (tf + norm));
+    }
+
+    // State changes; callers hold the write lock
+
+    private void apply(long id, Map<String, Float> termFrequencies, Map<String, int[]> termOffsets, long createdAt) {
+        String[] terms = termFrequencies.keySet().toArray(new String[0]);
+        float length = 0;
+        for (Float frequency : termFrequencies.values()) {
+            length += frequency;
+        }
+
+        unlink(id);
+        for (String term : terms) {
+            dictionary.computeIfAbsent(term, key -> new PostingList())
+                    .add(id, termFrequencies.get(term), length, termOffsets.get(term));
+        }
+        documents.put(id, new Document(terms, length, createdAt));
+        totalLength += length;
+        pendingChanges++;
+    }
+
+    private void unlink(long id) {
+        if (segment != null) {
+            int ordinal = segment.ordinalOf(id);
+            if (ordinal >= 0 && !deleted.get(ordinal)) {
+                deleted.set(ordinal);
+                deletedCount++;
+                totalLength -= segment.docLength(ordinal);
+            }
+        }
+
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length;
+        for (String term : previous.terms) {
+            PostingList postings = dictionary.get(term);
+            if (postings != null) {
+                postings.remove(id);
+                if (postings.isEmpty()) {
+                    dictionary.remove(term);
+                }
+            }
+        }
+    }
+
+    private int liveCount() {
+        int segmentLive = segment != null ? segment.docCount() - deletedCount : 0;
+        return segmentLive + documents.size();
+    }
+
+    private long createdAt(long id) {
+        Document document = documents.get(id);
+        return document != null ? document.createdAt : segment.docCreatedAt(segment.ordinalOf(id));
+    }
+
+    // Segment writing
+
+    /**
+     * Merges the segment's live documents with the on-heap ones into a new segment file.
+     * The first pass sizes everything so the writer can lay out offsets; the second streams the postings.
+     */
+    private void writeSegment(Path path) throws IOException {
+        int segmentDocs = segment != null ? segment.docCount() : 0;
+        long[] docIds = new long[liveCount()];
+        int docCount = 0;
+        for (int ordinal = 0; ordinal < segmentDocs; ordinal++) {
+            if (!deleted.get(ordinal)) {
+                docIds[docCount++] = segment.docId(ordinal);
+            }
+        }
+        for (Long id : documents.keySet()) {
+            docIds[docCount++] = id;
+        }
+        Arrays.sort(docIds);
+
+        float[] docLengths = new float[docIds.length];
+        long[] docCreatedAt = new long[docIds.length];
+        for (int i = 0; i < docIds.length; i++) {
+            Document document = documents.get(docIds[i]);
+            if (document != null) {
+                docLengths[i] = document.length;
+                docCreatedAt[i] = document.createdAt;
+            } else {
+                int ordinal = segment.ordinalOf(docIds[i]);
+                docLengths[i] = segment.docLength(ordinal);
+                docCreatedAt[i] = segment.docCreatedAt(ordinal);
+            }
+        }
+
+        List<String> terms = new ArrayList<>();
+        List<PostingList> heapPostings = new ArrayList<>();
+        List<Integer> segmentTerms = new ArrayList<>();
+        List<Integer> postingCounts = new ArrayList<>();
+
+        Iterator<Map.Entry<String, PostingList>> heapTerms = dictionary.entrySet().iterator();
+        Map.Entry<String, PostingList> heapTerm = heapTerms.hasNext() ? heapTerms.next() : null;
+        int segmentTerm = 0;
+        int segmentTermCount = segment != null ? segment.termCount() : 0;
+        while (heapTerm != null || segmentTerm < segmentTermCount) {
+            int order = heapTerm == null ? -1 : segmentTerm == segmentTermCount ? 1
+                    : segment.compareTerm(segmentTerm, heapTerm.getKey());
+
+            PostingList heap = order >= 0 ? heapTerm.getValue() : null;
+            int inSegment = order <= 0 ? segmentTerm : -1;
+            int count = heap != null ? heap.size() : 0;
+            if (inSegment >= 0) {
+                for (int i = 0; i < segment.postingCount(inSegment); i++) {
+                    if (!deleted.get(segment.postingOrdinal(inSegment, i))) {
+                        count++;
+                    }
+                }
+            }
+            if (count > 0) {
+                terms.add(heap != null ? heapTerm.getKey() : segment.term(inSegment));
+                heapPostings.add(heap);
+                segmentTerms.add(inSegment);
+                postingCounts.add(count);
+            }
+
+            if (order >= 0) {
+                heapTerm = heapTerms.hasNext() ? heapTerms.next() : null;
+            }
+            if (order <= 0) {
+                segmentTerm++;
+            }
+        }
+
+        int[] counts = postingCounts.stream().mapToInt(Integer::intValue).toArray();
+        try (Segment.Writer writer = new Segment.Writer(path, docIds, docLengths, docCreatedAt,
+                terms.toArray(new String[0]), counts)) {
+            for (int t = 0; t < terms.size(); t++) {
+                writePostings(writer, docIds, heapPostings.get(t), segmentTerms.get(t));
+            }
+        }
+    }
+
+    // Both sources are sorted by document ID and disjoint, so a merge keeps the new ordinals ascending
+    private void writePostings(Segment.Writer writer, long[] docIds, PostingList heap, int segmentTerm)
+            throws IOException {
+        int segmentSize = segmentTerm >= 0 ? segment.postingCount(segmentTerm) : 0;
+        int heapSize = heap != null ? heap.size() : 0;
+        int i = 0;
+        int j = 0;
+        while (i < segmentSize || j < heapSize) {
+            if (i < segmentSize && deleted.get(segment.postingOrdinal(segmentTerm, i))) {
+                i++;
+                continue;
+            }
+            long segmentId = i < segmentSize ? segment.docId(segment.postingOrdinal(segmentTerm, i)) : Long.MAX_VALUE;
+            long heapId = j < heapSize ? heap.id(j) : Long.MAX_VALUE;
+            if (segmentId < heapId) {
+                writer.addPosting(Arrays.binarySearch(docIds, segmentId), segment.postingFrequency(segmentTerm, i),
+                        segment.postingOffsets(segmentTerm, i));
+                i++;
+            } else {
+                writer.addPosting(Arrays.binarySearch(docIds, heapId), heap.frequency(j), heap.offsets(j));
+                j++;
+            }
+        }
+    }
+
+    // Files
+
+    private Path segmentPath(long generation) {
+        return directory.resolve(name + "." + generation + SEGMENT_SUFFIX);
+    }
+
+    private Path logPath(long generation) {
+        return directory.resolve(name + "." + generation + LOG_SUFFIX);
+    }
+
+    private long latestGeneration() throws IOException {
+        long latest = -1;
+        if (!Files.isDirectory(directory)) {
+            return latest;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, name + ".*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                latest = Math.max(latest, parseGeneration(file.getFileName().toString(), SEGMENT_SUFFIX));
+            }
+        }
+        return latest;
+    }
+
+    private void deleteGenerationsBefore(long current) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, name + ".*")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                long fileGeneration = fileName.endsWith(SEGMENT_SUFFIX) ? parseGeneration(fileName, SEGMENT_SUFFIX)
+                        : fileName.endsWith(LOG_SUFFIX) ? parseGeneration(fileName, LOG_SUFFIX) : -1;
+                if (fileGeneration >= 0 && fileGeneration < current) {
+                    // May fail while an old mapping is still open on some platforms; retried next snapshot
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Could not delete old search index files for {}: {}", name, e.getMessage());
+        }
+    }
+
+    private long parseGeneration(String fileName, String suffix) {
+        String generationPart = fileName.substring(name.length() + 1, fileName.length() - suffix.length());
+        try {
+            return Long.parseLong(generationPart);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void abandonLog(IOException cause) {
+        logger.warn("Search delta log for {} failed, changes are kept in memory until the next snapshot", name, cause);
+        closeLog();
+    }
+
+    private void closeLog() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            logger.debug("Could not close search delta log for {}: {}", name, e.getMessage());
+        }
+        log = null;
+    }
+
+    private static final class Document {
+        private final String[] terms;
+        private final float length;
+        private final long createdAt;
+
+        private Document(String[] terms, float length, long createdAt) {
+            this.terms = terms;
+            this.length = length;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Document IDs in ascending order with a partial score for each.
+     */
+    private static final class ScoredIds {
+        private static final ScoredIds EMPTY = new ScoredIds(new long[0], new float[0], 0);
+
+        private final long[] ids;
+        private final float[] scores;
+        private final int size;
+
+        private ScoredIds(long[] ids, float[] scores, int size) {
+            this.ids = ids;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        static ScoredIds intersectSum(ScoredIds a, ScoredIds b) {
+            int capacity = Math.min(a.size, b.size);
+            long[] ids = new long[capacity];
+            float[] scores = new float[capacity];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < a.size && j < b.size) {
+                if (a.ids[i] == b.ids[j]) {
+                    ids[count] = a.ids[i];
+                    scores[count++] = a.scores[i++] + b.scores[j++];
+                } else if (a.ids[i] < b.ids[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return new ScoredIds(ids, scores, count);
+        }
+
+        static ScoredIds unionMax(ScoredIds a, ScoredIds b) {
+            long[] ids = new long[a.size + b.size];
+            float[] scores = new float[a.size + b.size];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < a.size || j < b.size) {
+                if (j == b.size || (i < a.size && a.ids[i] < b.ids[j])) {
+                    ids[count] = a.ids[i];
+                    scores[count++] = a.scores[i++];
+                } else if (i == a.size || b.ids[j] < a.ids[i]) {
+                    ids[count] = b.ids[j];
+                    scores[count++] = b.scores[j++];
+                } else {
+                    ids[count] = a.ids[i];
+                    scores[count++] = Math.max(a.scores[i++], b.scores[j++]);
+                }
+            }
+            return new ScoredIds(ids, scores, count);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.ufc.search;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Accepts the terms within a fixed edit distance of a query term, plus every term the query is a
+ * prefix of (the same prefix expansion as a normal search).
+ * <p>
+ * A state is one row of the edit-distance table: entry {@code i} is the fewest edits turning the
+ * input read so far into the first {@code i} query characters, capped at {@code maxEdits + 1}.
+ * A state whose smallest entry exceeds {@code maxEdits} is dead, and so is every string starting
+ * with its input. {@link #intersect} uses this to jump over whole ranges of a sorted dictionary
+ * instead of comparing against every term.
+ */
+final class LevenshteinAutomaton {
+
+    private final char[] query;
+    private final String queryString;
+    private final int maxEdits;
+
+    LevenshteinAutomaton(String query, int maxEdits) {
+        this.query = query.toCharArray();
+        this.queryString = query;
+        this.maxEdits = maxEdits;
+    }
+
+    /**
+     * Edits allowed for a query term: none for very short terms, where one edit already matches
+     * almost anything, one up to five characters and two beyond.
+     */
+    static int maxEditsFor(String term) {
+        return term.length() < 3 ? 0 : term.length() < 6 ? 1 : 2;
+    }
+
+    /**
+     * Reports every accepted term of a sorted dictionary with its edit distance (0 for prefix expansions).
+     *
+     * @param ceiling returns the smallest dictionary term greater than or equal to its argument, or {@code null}
+     */
+    void intersect(UnaryOperator<String> ceiling, ObjIntConsumer<String> onMatch) {
+        // rows[d] is the state after the first d characters of the current term; rows shared
+        // with the previous term's prefix are reused
+        int[][] rows = new int[16][];
+        rows[0] = start();
+        int valid = 1;
+        String previous = "";
+
+        String term = ceiling.apply("");
+        while (term != null) {
+            if (term.startsWith(queryString)) {
+                onMatch.accept(term, 0);
+                term = ceiling.apply(term + '\0');
+                continue;
+            }
+
+            int depth = Math.min(commonPrefix(previous, term) + 1, valid);
+            int dead = -1;
+            for (; depth <= term.length(); depth++) {
+                if (depth == rows.length) {
+                    rows = Arrays.copyOf(rows, rows.length * 2);
+                }
+                rows[depth] = step(rows[depth - 1], term.charAt(depth - 1));
+                if (!canMatch(rows[depth])) {
+                    dead = depth;
+                    break;
+                }
+            }
+            valid = dead >= 0 ? dead : term.length() + 1;
+            previous = term;
+
+            if (dead >= 0) {
+                String next = successor(term, dead);
+                term = next != null ? ceiling.apply(next) : null;
+            } else {
+                int distance = rows[term.length()][query.length];
+                if (distance <= maxEdits) {
+                    onMatch.accept(term, distance);
+                }
+                term = ceiling.apply(term + '\0');
+            }
+        }
+    }
+
+    private int[] start() {
+        int[] row = new int[query.length + 1];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = Math.min(i, maxEdits + 1);
+        }
+        return row;
+    }
+
+    private int[] step(int[] row, char c) {
+        int cap = maxEdits + 1;
+        int[] next = new int[row.length];
+        next[0] = Math.min(row[0] + 1, cap);
+        for (int i = 1; i < row.length; i++) {
+            int substitute = row[i - 1] + (query[i - 1] == c ? 0 : 1);
+            int insert = row[i] + 1;
+            int delete = next[i - 1] + 1;
+            next[i] = Math.min(Math.min(substitute, insert), Math.min(delete, cap));
+        }
+        return next;
+    }
+
+    private boolean canMatch(int[] row) {
+        for (int cost : row) {
+            if (cost <= maxEdits) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * The smallest string greater than every string starting with the first {@code length} characters of
+     * {@code term}, or {@code null} if there is none.
+     */
+    private static String successor(String term, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            char c = term.charAt(i);
+            if (c != Character.MAX_VALUE) {
+                return term.substring(0, i) + (char) (c + 1);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.ufc.search;
+
+import com.example.ufc.entity.Comment;
+import com.example.ufc.entity.Topic;
+import com.example.ufc.repository.CommentRepository;
+import com.example.ufc.repository.TopicRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Portable {@code LIKE '%x%'} search. Always a full scan, but works on any database (H2 in tests).
+ */
+@Component
+@ConditionalOnProperty(name = "search.text.backend", havingValue = "like", matchIfMissing = true)
+public class LikeSearchBackend implements TextSearchBackend {
+
+    private final TopicRepository topicRepository;
+    private final CommentRepository commentRepository;
+
+    @Autowired
+    public LikeSearchBackend(TopicRepository topicRepository, CommentRepository commentRepository) {
+        this.topicRepository = topicRepository;
+        this.commentRepository = commentRepository;
+    }
+
+    @Override
+    public List<Topic> searchTopics(String search) {
+        return topicRepository.searchByTitleOrContent(search);
+    }
+
+    @Override
+    public Page<Topic> searchTopics(String search, Pageable pageable) {
+        return topicRepository.searchByTitleOrContent(search, pageable);
+    }
+
+    @Override
+    public Page<Comment> searchComments(String search, Pageable pageable) {
+        return commentRepository.searchByContent(search, pageable);
+    }
+}
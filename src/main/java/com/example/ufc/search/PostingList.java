@@ -0,0 +1,107 @@
+package com.example.ufc.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of document IDs for a single term, with the term frequency and
+ * document length stored alongside each ID so scoring needs no extra lookups.
+ * Backed by primitive arrays so large posting lists don't box every entry.
+ * Each posting may also carry the character offsets of the term in the document's body,
+ * as (start, end) pairs, for highlighting.
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private float[] frequencies = new float[INITIAL_CAPACITY];
+    private float[] lengths = new float[INITIAL_CAPACITY];
+    private int[][] offsets = new int[INITIAL_CAPACITY][];
+    private int size;
+
+    void add(long id, float frequency, float length, int[] termOffsets) {
+        int insertAt;
+        // IDs are generated in increasing order, so appending is the common case
+        if (size == 0 || ids[size - 1] < id) {
+            insertAt = size;
+        } else {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                frequencies[index] = frequency;
+                lengths[index] = length;
+                offsets[index] = termOffsets;
+                return;
+            }
+            insertAt = -index - 1;
+        }
+
+        ensureCapacity(size + 1);
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, size - insertAt);
+        System.arraycopy(lengths, insertAt, lengths, insertAt + 1, size - insertAt);
+        System.arraycopy(offsets, insertAt, offsets, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        frequencies[insertAt] = frequency;
+        lengths[insertAt] = length;
+        offsets[insertAt] = termOffsets;
+        size++;
+    }
+
+    boolean remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return false;
+        }
+        int moved = size - index - 1;
+        System.arraycopy(ids, index + 1, ids, index, moved);
+        System.arraycopy(frequencies, index + 1, frequencies, index, moved);
+        System.arraycopy(lengths, index + 1, lengths, index, moved);
+        System.arraycopy(offsets, index + 1, offsets, index, moved);
+        offsets[--size] = null;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long id(int index) {
+        return ids[index];
+    }
+
+    float frequency(int index) {
+        return frequencies[index];
+    }
+
+    float length(int index) {
+        return lengths[index];
+    }
+
+    /**
+     * @return (start, end) character offset pairs, or {@code null} if none were recorded
+     */
+    int[] offsets(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * @return the index of the document's posting, or a negative value if the term doesn't occur in it
+     */
+    int indexOf(long id) {
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > ids.length) {
+            int capacity = Math.max(required, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            frequencies = Arrays.copyOf(frequencies, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+        }
+    }
+}
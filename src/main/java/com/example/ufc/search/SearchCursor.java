@@ -0,0 +1,59 @@
+package com.example.ufc.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a ranked result list: the score and ID of the last hit on the previous page,
+ * plus the reference time used for recency decay so every page is ranked against the same clock.
+ */
+public final class SearchCursor {
+
+    private final float score;
+    private final long id;
+    private final long asOf;
+
+    public SearchCursor(float score, long id, long asOf) {
+        this.score = score;
+        this.id = id;
+        this.asOf = asOf;
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getAsOf() {
+        return asOf;
+    }
+
+    /**
+     * Whether a hit with the given score and ID sorts after this cursor (score desc, then ID desc).
+     */
+    boolean isBefore(float otherScore, long otherId) {
+        return otherScore < score || (otherScore == score && otherId < id);
+    }
+
+    public String encode() {
+        String raw = Integer.toHexString(Float.floatToIntBits(score)) + ":" + id + ":" + asOf;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static SearchCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid search cursor");
+            }
+            float score = Float.intBitsToFloat(Integer.parseUnsignedInt(parts[0], 16));
+            return new SearchCursor(score, Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search cursor", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ufc.search;
+
+/**
+ * One page of ranked hits from an {@link InvertedIndex}, best first.
+ */
+public final class SearchHits {
+
+    private final long[] ids;
+    private final float[] scores;
+    private final boolean hasMore;
+    private final long asOf;
+
+    SearchHits(long[] ids, float[] scores, boolean hasMore, long asOf) {
+        this.ids = ids;
+        this.scores = scores;
+        this.hasMore = hasMore;
+        this.asOf = asOf;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long id(int index) {
+        return ids[index];
+    }
+
+    public float score(int index) {
+        return scores[index];
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Cursor pointing after the last hit of this page, or {@code null} when there is nothing further.
+     */
+    public SearchCursor nextCursor() {
+        if (!hasMore || ids.length == 0) {
+            return null;
+        }
+        int last = ids.length - 1;
+        return new SearchCursor(scores[last], ids[last], asOf);
+    }
+}
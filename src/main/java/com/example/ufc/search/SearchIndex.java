@@ -0,0 +1,338 @@
+package com.example.ufc.search;
+
+import com.example.ufc.entity.Post;
+import com.example.ufc.entity.Topic;
+import com.example.ufc.entity.User;
+import com.example.ufc.event.PostEvent;
+import com.example.ufc.event.TopicEvent;
+import com.example.ufc.event.UserEvent;
+import com.example.ufc.repository.PostRepository;
+import com.example.ufc.repository.TopicRepository;
+import com.example.ufc.repository.UserRepository;
+import com.example.ufc.search.analysis.Analyzer;
+import com.example.ufc.search.analysis.TermCounts;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Holds the inverted indexes for topics, posts and users, kept current from the topic, post and user
+ * events once the writing transaction has committed, so a rolled-back write never reaches the index.
+ * When {@code search.index.directory} is set the indexes are snapshotted to disk periodically and on
+ * shutdown, and startup restores them from there and reindexes only the rows written since; otherwise
+ * they are rebuilt from the database on every start.
+ */
+@Component
+public class SearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private static final String MARK_FILE = "indexed-through";
+    // Transactions commit (and reach the index) in a different order than they stamp updated_at
+    private static final Duration CATCH_UP_SLACK = Duration.ofMinutes(5);
+
+    // Weight of a term occurrence in a topic title or username relative to body text
+    private static final float TITLE_BOOST = 3.0f;
+    private static final float BODY_WEIGHT = 1.0f;
+
+    private final TopicRepository topicRepository;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final Analyzer analyzer;
+
+    private final Path directory;
+    private final boolean persistent;
+    private final InvertedIndex topics;
+    private final InvertedIndex posts;
+    private final InvertedIndex users;
+
+    // Newest updated_at among the rows indexed so far: everything written before it is in the index
+    private final AtomicReference<LocalDateTime> indexedThrough = new AtomicReference<>();
+
+    private volatile boolean ready;
+
+    @Autowired
+    public SearchIndex(TopicRepository topicRepository, PostRepository postRepository,
+                       UserRepository userRepository, @Qualifier("searchAnalyzer") Analyzer analyzer,
+                       @Value("${search.index.directory:}") String directory) {
+        this.topicRepository = topicRepository;
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.analyzer = analyzer;
+
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.persistent = this.directory != null;
+        this.topics = new InvertedIndex(this.directory, "topics");
+        this.posts = new InvertedIndex(this.directory, "posts");
+        this.users = new InvertedIndex(this.directory, "users");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (persistent && restore()) {
+            ready = true;
+            return;
+        }
+        rebuild();
+        snapshot();
+        ready = true;
+    }
+
+    /**
+     * Reindexes everything from the database.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+
+        topics.clear();
+        posts.clear();
+        users.clear();
+        indexedThrough.set(null);
+
+        forEachInBatches(topicRepository::findAll, this::indexTopic);
+        forEachInBatches(postRepository::findAll, this::indexPost);
+        forEachInBatches(userRepository::findAll, this::indexUser);
+
+        logger.info("Search index built in {} ms: {} topics, {} posts, {} users",
+                System.currentTimeMillis() - start, topics.size(), posts.size(), users.size());
+    }
+
+    /**
+     * Writes a fresh segment for every index that changed since its last snapshot, then records how far
+     * the indexes reach.
+     */
+    @Scheduled(fixedDelayString = "${search.index.snapshot-interval:600000}",
+            initialDelayString = "${search.index.snapshot-interval:600000}")
+    public void snapshot() {
+        if (!persistent) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            for (InvertedIndex index : new InvertedIndex[]{topics, posts, users}) {
+                if (index.hasPendingChanges()) {
+                    index.snapshot();
+                }
+            }
+            writeMark(indexedThrough.get());
+            logger.debug("Search index snapshot written in {} ms", System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            logger.error("Could not write search index snapshot", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ready) {
+            snapshot();
+        }
+        topics.close();
+        posts.close();
+        users.close();
+    }
+
+    /**
+     * Loads the on-disk indexes and reindexes the rows written since the recorded mark, which covers
+     * writes made while the application was down or missed by a torn delta log. Rows deleted outside
+     * the application are not noticed; remove the index directory to force a rebuild after that.
+     */
+    private boolean restore() {
+        long start = System.currentTimeMillis();
+        LocalDateTime mark;
+        try {
+            mark = readMark();
+            if (mark == null || !topics.load() || !posts.load() || !users.load()) {
+                return false;
+            }
+        } catch (IOException | DateTimeParseException e) {
+            logger.warn("Could not load search index snapshot, rebuilding from the database", e);
+            return false;
+        }
+
+        indexedThrough.set(mark);
+        LocalDateTime since = mark.minus(CATCH_UP_SLACK);
+        long caughtUp = forEachInBatches(page -> topicRepository.findByUpdatedAtGreaterThanEqual(since, page),
+                this::indexTopic)
+                + forEachInBatches(page -> postRepository.findByUpdatedAtGreaterThanEqual(since, page),
+                this::indexPost)
+                + forEachInBatches(page -> userRepository.findByUpdatedAtGreaterThanEqual(since, page),
+                this::indexUser);
+
+        logger.info("Search index restored in {} ms: {} topics, {} posts, {} users, {} rows reindexed since {}",
+                System.currentTimeMillis() - start, topics.size(), posts.size(), users.size(), caughtUp, since);
+        return true;
+    }
+
+    private LocalDateTime readMark() throws IOException {
+        Path path = directory.resolve(MARK_FILE);
+        return Files.exists(path) ? LocalDateTime.parse(Files.readString(path).trim()) : null;
+    }
+
+    private void writeMark(LocalDateTime mark) throws IOException {
+        Files.createDirectories(directory);
+        if (mark == null) {
+            // Nothing indexed yet, so there is nothing to catch up from; the next start rebuilds
+            Files.deleteIfExists(directory.resolve(MARK_FILE));
+            return;
+        }
+        Path temp = directory.resolve(MARK_FILE + ".tmp");
+        Files.writeString(temp, mark.toString());
+        Files.move(temp, directory.resolve(MARK_FILE), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Offsets are kept for the text that excerpts are cut from
+    public void indexTopic(Topic topic) {
+        advanceMark(topic.getUpdatedAt());
+        TermCounts terms = new TermCounts();
+        addTerms(terms, topic.getTitle(), TITLE_BOOST, false);
+        addTerms(terms, topic.getContent(), BODY_WEIGHT, true);
+        topics.index(topic.getId(), terms.toMap(), terms.offsetsMap(), epochSeconds(topic.getCreatedAt()));
+    }
+
+    public void indexPost(Post post) {
+        advanceMark(post.getUpdatedAt());
+        TermCounts terms = new TermCounts();
+        addTerms(terms, post.getContent(), BODY_WEIGHT, true);
+        posts.index(post.getId(), terms.toMap(), terms.offsetsMap(), epochSeconds(post.getCreatedAt()));
+    }
+
+    public void indexUser(User user) {
+        advanceMark(user.getUpdatedAt());
+        TermCounts terms = new TermCounts();
+        addTerms(terms, user.getUsername(), TITLE_BOOST, false);
+        addTerms(terms, user.getBio(), BODY_WEIGHT, false);
+        users.index(user.getId(), terms.toMap(), terms.offsetsMap(), epochSeconds(user.getCreatedAt()));
+    }
+
+    public void removeTopic(Long topicId) {
+        topics.remove(topicId);
+    }
+
+    public void removePost(Long postId) {
+        posts.remove(postId);
+    }
+
+    public void removeUser(Long userId) {
+        users.remove(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicEvent(TopicEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> indexTopic(event.getTopic());
+            case DELETED -> {
+                removeTopic(event.getTopicId());
+                // Removed from the database by the cascade, without events of their own
+                event.getRemovedPostIds().forEach(this::removePost);
+            }
+            default -> {
+                // Pinning and locking don't change the text
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostEvent(PostEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> indexPost(event.getPost());
+            case DELETED -> removePost(event.getPostId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(UserEvent event) {
+        if (event.getType() == UserEvent.Type.DELETED) {
+            removeUser(event.getUserId());
+        } else {
+            // Admin edits that ban or unban may also change the username or bio
+            indexUser(event.getUser());
+        }
+    }
+
+    /**
+     * The analyzed form of a query, for reuse across the calls that serve one search.
+     */
+    public List<String> queryTerms(String query) {
+        return analyzer.terms(query);
+    }
+
+    /**
+     * Offsets of the query terms in a topic's content, as (start, end) pairs sorted by start.
+     */
+    public int[] topicMatches(long topicId, List<String> queryTerms, boolean fuzzy) {
+        return topics.matchOffsets(topicId, queryTerms, fuzzy);
+    }
+
+    /**
+     * Offsets of the query terms in a post's content, as (start, end) pairs sorted by start.
+     */
+    public int[] postMatches(long postId, List<String> queryTerms, boolean fuzzy) {
+        return posts.matchOffsets(postId, queryTerms, fuzzy);
+    }
+
+    public SearchHits searchTopics(String query, SearchCursor after, int limit, boolean fuzzy) {
+        return topics.search(analyzer.terms(query), after, limit, epochSeconds(LocalDateTime.now()), fuzzy);
+    }
+
+    public SearchHits searchPosts(String query, SearchCursor after, int limit, boolean fuzzy) {
+        return posts.search(analyzer.terms(query), after, limit, epochSeconds(LocalDateTime.now()), fuzzy);
+    }
+
+    public SearchHits searchUsers(String query, SearchCursor after, int limit, boolean fuzzy) {
+        return users.search(analyzer.terms(query), after, limit, epochSeconds(LocalDateTime.now()), fuzzy);
+    }
+
+    private void advanceMark(LocalDateTime updatedAt) {
+        if (updatedAt != null) {
+            indexedThrough.accumulateAndGet(updatedAt,
+                    (current, next) -> current == null || next.isAfter(current) ? next : current);
+        }
+    }
+
+    private void addTerms(TermCounts terms, String text, float weight, boolean recordOffsets) {
+        analyzer.analyze(text, term -> terms.add(term, weight, recordOffsets));
+    }
+
+    // Entity timestamps are zone-less local times, so both sides of the age calculation use the same offset
+    private static long epochSeconds(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toEpochSecond(ZoneOffset.UTC) : 0;
+    }
+
+    private <T> long forEachInBatches(Function<Pageable, Page<T>> query, Consumer<T> action) {
+        Page<T> page = query.apply(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+        while (true) {
+            page.forEach(action);
+            if (!page.hasNext()) {
+                return page.getTotalElements();
+            }
+            page = query.apply(page.nextPageable());
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.example.ufc.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Immutable on-disk snapshot of an {@link InvertedIndex}, read through a memory mapping so the
+ * dictionary and posting lists stay off-heap and only the pages a query touches are loaded.
+ *
+ * <pre>
+ * header    magic, version, docCount, termCount, docTable, termTable, termChars, postings, offsets (9 ints)
+ * docTable  docCount x (id long, length float, createdAt long), sorted by id; index = ordinal
+ * termTable (termCount + 1) x (charStart int, postingStart int, postingCount int), sorted by term
+ * termChars UTF-16 chars of all terms back to back
+ * postings  per term: postingCount x (ordinal int, frequency float, offsetsStart int), sorted by ordinal
+ * offsets   per posting with offsets: count int, then count ints of (start, end) pairs;
+ *           offsetsStart is the int index of the count, or -1 when the posting has none
+ * </pre>
+ * Segments are limited to 2 GB, the size of a single mapping.
+ */
+final class Segment {
+
+    private static final int MAGIC = 0x55464353; // "UFCS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 36;
+    private static final int DOC_ENTRY_SIZE = 20;
+    private static final int TERM_ENTRY_SIZE = 12;
+    private static final int POSTING_SIZE = 12;
+    private static final int NO_OFFSETS = -1;
+
+    private final MappedByteBuffer buffer;
+    private final int docCount;
+    private final int termCount;
+    private final int docTable;
+    private final int termTable;
+    private final int termChars;
+    private final int postings;
+    private final int offsets;
+
+    private Segment(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a search segment or unsupported version");
+        }
+        this.docCount = buffer.getInt(8);
+        this.termCount = buffer.getInt(12);
+        this.docTable = buffer.getInt(16);
+        this.termTable = buffer.getInt(20);
+        this.termChars = buffer.getInt(24);
+        this.postings = buffer.getInt(28);
+        this.offsets = buffer.getInt(32);
+    }
+
+    static Segment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new Segment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Documents
+
+    int docCount() {
+        return docCount;
+    }
+
+    long docId(int ordinal) {
+        return buffer.getLong(docTable + ordinal * DOC_ENTRY_SIZE);
+    }
+
+    float docLength(int ordinal) {
+        return buffer.getFloat(docTable + ordinal * DOC_ENTRY_SIZE + 8);
+    }
+
+    long docCreatedAt(int ordinal) {
+        return buffer.getLong(docTable + ordinal * DOC_ENTRY_SIZE + 12);
+    }
+
+    /**
+     * @return the ordinal of the document, or -1 if the segment doesn't contain it
+     */
+    int ordinalOf(long id) {
+        int low = 0;
+        int high = docCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = docId(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Terms
+
+    int termCount() {
+        return termCount;
+    }
+
+    /**
+     * @return index of the first term that is not less than {@code key}; {@link #termCount()} if none
+     */
+    int lowerBound(String key) {
+        int low = 0;
+        int high = termCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareTerm(mid, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    boolean termStartsWith(int termIndex, String prefix) {
+        int start = termCharStart(termIndex);
+        int length = termCharStart(termIndex + 1) - start;
+        if (length < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (termChar(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String term(int termIndex) {
+        int start = termCharStart(termIndex);
+        int length = termCharStart(termIndex + 1) - start;
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = termChar(start + i);
+        }
+        return new String(chars);
+    }
+
+    int postingCount(int termIndex) {
+        return buffer.getInt(termTable + termIndex * TERM_ENTRY_SIZE + 8);
+    }
+
+    int postingOrdinal(int termIndex, int posting) {
+        return buffer.getInt(postingAddress(termIndex, posting));
+    }
+
+    float postingFrequency(int termIndex, int posting) {
+        return buffer.getFloat(postingAddress(termIndex, posting) + 4);
+    }
+
+    /**
+     * @return (start, end) character offset pairs, or {@code null} if none were recorded
+     */
+    int[] postingOffsets(int termIndex, int posting) {
+        int start = buffer.getInt(postingAddress(termIndex, posting) + 8);
+        if (start == NO_OFFSETS) {
+            return null;
+        }
+        int address = offsets + start * 4;
+        int[] result = new int[buffer.getInt(address)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = buffer.getInt(address + 4 + i * 4);
+        }
+        return result;
+    }
+
+    /**
+     * @return the index of the ordinal's posting within the term, or -1 if the term doesn't occur in it
+     */
+    int findPosting(int termIndex, int ordinal) {
+        int low = 0;
+        int high = postingCount(termIndex) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midOrdinal = postingOrdinal(termIndex, mid);
+            if (midOrdinal < ordinal) {
+                low = mid + 1;
+            } else if (midOrdinal > ordinal) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int postingAddress(int termIndex, int posting) {
+        int start = buffer.getInt(termTable + termIndex * TERM_ENTRY_SIZE + 4);
+        return postings + (start + posting) * POSTING_SIZE;
+    }
+
+    private int termCharStart(int termIndex) {
+        return buffer.getInt(termTable + termIndex * TERM_ENTRY_SIZE);
+    }
+
+    private char termChar(int charIndex) {
+        return buffer.getChar(termChars + charIndex * 2);
+    }
+
+    // Same ordering as String.compareTo, without decoding the term
+    int compareTerm(int termIndex, String key) {
+        int start = termCharStart(termIndex);
+        int length = termCharStart(termIndex + 1) - start;
+        int common = Math.min(length, key.length());
+        for (int i = 0; i < common; i++) {
+            int diff = termChar(start + i) - key.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - key.length();
+    }
+
+    /**
+     * Streams a segment to disk. Callers must declare every document and term up front
+     * (so all offsets are known) and then supply postings term by term, in term order.
+     * Postings and their character offsets go to two regions of the file, each through its own buffer.
+     */
+    static final class Writer implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final Region postingRegion;
+        private final Region offsetRegion;
+        private final int[] postingCounts;
+        private int currentTerm;
+        private int writtenInTerm;
+        private int offsetInts;
+
+        Writer(Path path, long[] docIds, float[] docLengths, long[] docCreatedAt,
+               String[] terms, int[] postingCounts) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.postingCounts = postingCounts;
+
+            int docCount = docIds.length;
+            int termCount = terms.length;
+            long totalChars = 0;
+            for (String term : terms) {
+                totalChars += term.length();
+            }
+            long totalPostings = 0;
+            for (int count : postingCounts) {
+                totalPostings += count;
+            }
+
+            long docTable = HEADER_SIZE;
+            long termTable = docTable + (long) docCount * DOC_ENTRY_SIZE;
+            long termChars = termTable + (long) (termCount + 1) * TERM_ENTRY_SIZE;
+            long postings = termChars + totalChars * 2;
+            long offsets = postings + totalPostings * POSTING_SIZE;
+            if (offsets > Integer.MAX_VALUE) {
+                throw new IOException("Search segment would exceed 2 GB");
+            }
+
+            Region head = new Region(channel, 0);
+            head.putInt(MAGIC);
+            head.putInt(VERSION);
+            head.putInt(docCount);
+            head.putInt(termCount);
+            head.putInt((int) docTable);
+            head.putInt((int) termTable);
+            head.putInt((int) termChars);
+            head.putInt((int) postings);
+            head.putInt((int) offsets);
+
+            for (int i = 0; i < docCount; i++) {
+                head.putLong(docIds[i]);
+                head.putFloat(docLengths[i]);
+                head.putLong(docCreatedAt[i]);
+            }
+
+            int charStart = 0;
+            int postingStart = 0;
+            for (int i = 0; i <= termCount; i++) {
+                head.putInt(charStart);
+                head.putInt(postingStart);
+                head.putInt(i < termCount ? postingCounts[i] : 0);
+                if (i < termCount) {
+                    charStart += terms[i].length();
+                    postingStart += postingCounts[i];
+                }
+            }
+
+            for (String term : terms) {
+                for (int i = 0; i < term.length(); i++) {
+                    head.putChar(term.charAt(i));
+                }
+            }
+            head.flush();
+
+            this.postingRegion = new Region(channel, postings);
+            this.offsetRegion = new Region(channel, offsets);
+        }
+
+        void addPosting(int ordinal, float frequency, int[] termOffsets) throws IOException {
+            while (writtenInTerm == postingCounts[currentTerm]) {
+                currentTerm++;
+                writtenInTerm = 0;
+            }
+            postingRegion.putInt(ordinal);
+            postingRegion.putFloat(frequency);
+            if (termOffsets == null) {
+                postingRegion.putInt(NO_OFFSETS);
+            } else {
+                postingRegion.putInt(offsetInts);
+                offsetRegion.putInt(termOffsets.length);
+                for (int offset : termOffsets) {
+                    offsetRegion.putInt(offset);
+                }
+                offsetInts += 1 + termOffsets.length;
+            }
+            writtenInTerm++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                postingRegion.flush();
+                offsetRegion.flush();
+                if (offsetRegion.position > Integer.MAX_VALUE) {
+                    throw new IOException("Search segment would exceed 2 GB");
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Buffered sequential writes starting at a fixed position of the file.
+     */
+    private static final class Region {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        private long position;
+
+        private Region(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        void putInt(int value) throws IOException {
+            ensureRoom(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensureRoom(8);
+            buffer.putLong(value);
+        }
+
+        void putFloat(float value) throws IOException {
+            ensureRoom(4);
+            buffer.putFloat(value);
+        }
+
+        void putChar(char value) throws IOException {
+            ensureRoom(2);
+            buffer.putChar(value);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+
+        private void ensureRoom(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.ufc.search;
+
+import com.example.ufc.dto.SuggestionDto;
+import com.example.ufc.repository.TopicRepository;
+import com.example.ufc.repository.UserRepository;
+import com.example.ufc.search.analysis.Analyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Search-as-you-type suggestions for topic titles and usernames.
+ * Served entirely from an immutable in-memory trie that is rebuilt in the background, so
+ * lookups never touch the database; rankings and new entries lag by at most one refresh interval.
+ */
+@Component
+public class SuggestionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    // Entries kept per trie node; more than a response needs so multi-word filtering still fills it
+    private static final int TOP_K = 16;
+
+    // A reply says more about interest in a topic than a view does
+    private static final long REPLY_WEIGHT = 10;
+
+    private final TopicRepository topicRepository;
+    private final UserRepository userRepository;
+    private final Analyzer analyzer;
+
+    private volatile Catalog topics = Catalog.EMPTY;
+    private volatile Catalog users = Catalog.EMPTY;
+
+    @Autowired
+    public SuggestionIndex(TopicRepository topicRepository, UserRepository userRepository,
+                           @Qualifier("suggestionAnalyzer") Analyzer analyzer) {
+        this.topicRepository = topicRepository;
+        this.userRepository = userRepository;
+        this.analyzer = analyzer;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${search.suggest.refresh-interval:60000}",
+            initialDelayString = "${search.suggest.refresh-interval:60000}")
+    public void refresh() {
+        long start = System.currentTimeMillis();
+
+        List<Object[]> topicRows = topicRepository.findSuggestionRows();
+        Catalog newTopics = build(topicRows.size(), i -> {
+            Object[] row = topicRows.get(i);
+            long rank = toLong(row[2]) + REPLY_WEIGHT * toLong(row[3]);
+            return new Row((Long) row[0], (String) row[1], rank, "/forum/topic/" + row[0]);
+        });
+
+        List<Object[]> userRows = userRepository.findSuggestionRows();
+        Catalog newUsers = build(userRows.size(), i -> {
+            Object[] row = userRows.get(i);
+            String username = (String) row[1];
+            return new Row((Long) row[0], username, toLong(row[2]),
+                    "/user/profile/" + UriUtils.encodePathSegment(username, StandardCharsets.UTF_8));
+        });
+
+        topics = newTopics;
+        users = newUsers;
+        logger.debug("Suggestion index refreshed in {} ms: {} topics, {} users",
+                System.currentTimeMillis() - start, topicRows.size(), userRows.size());
+    }
+
+    /**
+     * Best topics and users whose words start with the words of {@code query}.
+     * The last word is treated as a prefix still being typed; earlier words must prefix a word of the entry too.
+     */
+    public SuggestionDto suggest(String query, int limit) {
+        SuggestionDto suggestions = new SuggestionDto();
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(analyzer.terms(query)));
+        if (words.isEmpty()) {
+            return suggestions;
+        }
+        suggestions.setTopics(topics.suggest(words, limit));
+        suggestions.setUsers(users.suggest(words, limit));
+        return suggestions;
+    }
+
+    private Catalog build(int size, IntFunction<Row> rows) {
+        long[] ids = new long[size];
+        String[] texts = new String[size];
+        String[] urls = new String[size];
+        long[] ranks = new long[size];
+        String[][] words = new String[size][];
+        List<String> keys = new ArrayList<>();
+        List<Integer> keyEntries = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            Row row = rows.apply(i);
+            ids[i] = row.id;
+            texts[i] = row.text;
+            urls[i] = row.url;
+            ranks[i] = row.rank;
+            words[i] = new LinkedHashSet<>(analyzer.terms(row.text)).toArray(new String[0]);
+            for (String word : words[i]) {
+                keys.add(word);
+                keyEntries.add(i);
+            }
+        }
+
+        SuggestionTrie trie = new SuggestionTrie(keys.toArray(new String[0]),
+                keyEntries.stream().mapToInt(Integer::intValue).toArray(), ranks, TOP_K);
+        return new Catalog(trie, ids, texts, urls, words);
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+
+    private static final class Row {
+        private final long id;
+        private final String text;
+        private final long rank;
+        private final String url;
+
+        private Row(long id, String text, long rank, String url) {
+            this.id = id;
+            this.text = text;
+            this.rank = rank;
+            this.url = url;
+        }
+    }
+
+    /**
+     * One immutable generation of suggestions for a single entity type.
+     */
+    private static final class Catalog {
+        private static final Catalog EMPTY = new Catalog(
+                new SuggestionTrie(new String[0], new int[0], new long[0], TOP_K),
+                new long[0], new String[0], new String[0], new String[0][]);
+
+        private final SuggestionTrie trie;
+        private final long[] ids;
+        private final String[] texts;
+        private final String[] urls;
+        private final String[][] words;
+
+        private Catalog(SuggestionTrie trie, long[] ids, String[] texts, String[] urls, String[][] words) {
+            this.trie = trie;
+            this.ids = ids;
+            this.texts = texts;
+            this.urls = urls;
+            this.words = words;
+        }
+
+        private List<SuggestionDto.Item> suggest(List<String> queryWords, int limit) {
+            List<SuggestionDto.Item> items = new ArrayList<>(limit);
+            for (int entry : trie.lookup(queryWords.get(queryWords.size() - 1))) {
+                if (matchesAll(entry, queryWords)) {
+                    items.add(new SuggestionDto.Item(ids[entry], texts[entry], urls[entry]));
+                    if (items.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return items;
+        }
+
+        private boolean matchesAll(int entry, List<String> queryWords) {
+            for (int i = 0; i < queryWords.size() - 1; i++) {
+                if (!hasWordStartingWith(entry, queryWords.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean hasWordStartingWith(int entry, String prefix) {
+            for (String word : words[entry]) {
+                if (word.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.ufc.search;
+
+import java.util.Arrays;
+
+/**
+ * Immutable radix trie mapping key prefixes to the best-ranked entries below them.
+ * Every node stores its own top-K entry list, so a lookup is a walk down the prefix and
+ * costs O(prefix length) no matter how many keys share it.
+ */
+final class SuggestionTrie {
+
+    private static final int[] NONE = new int[0];
+
+    private final Node root;
+
+    /**
+     * @param keys    normalized keys; an entry may appear under several keys (one per word)
+     * @param entries entry index for each key
+     * @param ranks   rank of each entry, higher is better
+     * @param topK    how many entries each node keeps
+     */
+    SuggestionTrie(String[] keys, int[] entries, long[] ranks, int topK) {
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> keys[a].compareTo(keys[b]));
+
+        String[] sortedKeys = new String[keys.length];
+        int[] sortedEntries = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys[order[i]];
+            sortedEntries[i] = entries[order[i]];
+        }
+
+        this.root = sortedKeys.length == 0
+                ? new Node(new char[0], new char[0], new Node[0], NONE)
+                : build(sortedKeys, sortedEntries, ranks, topK, 0, sortedKeys.length, 0);
+    }
+
+    /**
+     * Entry indexes for keys starting with {@code prefix}, best first. The returned array must not be modified.
+     */
+    int[] lookup(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (true) {
+            char[] label = node.label;
+            for (int j = 0; j < label.length; j++, i++) {
+                if (i == prefix.length()) {
+                    return node.top;
+                }
+                if (label[j] != prefix.charAt(i)) {
+                    return NONE;
+                }
+            }
+            if (i == prefix.length()) {
+                return node.top;
+            }
+            int child = Arrays.binarySearch(node.childChars, prefix.charAt(i));
+            if (child < 0) {
+                return NONE;
+            }
+            node = node.children[child];
+        }
+    }
+
+    /**
+     * Builds the node for sorted keys [from, to), which all share their first {@code depth} chars.
+     */
+    private static Node build(String[] keys, int[] entries, long[] ranks, int topK, int from, int to, int depth) {
+        // Sorted input: the common prefix of the range is the common prefix of its first and last key
+        String first = keys[from];
+        String last = keys[to - 1];
+        int end = depth;
+        while (end < first.length() && end < last.length() && first.charAt(end) == last.charAt(end)) {
+            end++;
+        }
+        char[] label = first.substring(depth, end).toCharArray();
+
+        TopK top = new TopK(ranks, topK);
+        int i = from;
+        // Keys that end exactly here sort first
+        while (i < to && keys[i].length() == end) {
+            top.offer(entries[i]);
+            i++;
+        }
+
+        int childCount = 0;
+        char[] childChars = new char[to - i];
+        Node[] children = new Node[to - i];
+        while (i < to) {
+            char c = keys[i].charAt(end);
+            int groupEnd = i + 1;
+            while (groupEnd < to && keys[groupEnd].charAt(end) == c) {
+                groupEnd++;
+            }
+            Node child = build(keys, entries, ranks, topK, i, groupEnd, end);
+            childChars[childCount] = c;
+            children[childCount++] = child;
+            for (int entry : child.top) {
+                top.offer(entry);
+            }
+            i = groupEnd;
+        }
+
+        return new Node(label, Arrays.copyOf(childChars, childCount), Arrays.copyOf(children, childCount),
+                top.toArray());
+    }
+
+    /**
+     * Small sorted buffer of the best distinct entries offered so far.
+     */
+    private static final class TopK {
+        private final long[] ranks;
+        private final int[] entries;
+        private int size;
+
+        private TopK(long[] ranks, int capacity) {
+            this.ranks = ranks;
+            this.entries = new int[capacity];
+        }
+
+        void offer(int entry) {
+            for (int i = 0; i < size; i++) {
+                if (entries[i] == entry) {
+                    return;
+                }
+            }
+            if (size == entries.length && !better(entry, entries[size - 1])) {
+                return;
+            }
+            int position = size < entries.length ? size++ : size - 1;
+            while (position > 0 && better(entry, entries[position - 1])) {
+                entries[position] = entries[position - 1];
+                position--;
+            }
+            entries[position] = entry;
+        }
+
+        private boolean better(int a, int b) {
+            return ranks[a] > ranks[b] || (ranks[a] == ranks[b] && a < b);
+        }
+
+        int[] toArray() {
+            return size == 0 ? NONE : Arrays.copyOf(entries, size);
+        }
+    }
+
+    private static final class Node {
+        private final char[] label;
+        private final char[] childChars;
+        private final Node[] children;
+        private final int[] top;
+
+        private Node(char[] label, char[] childChars, Node[] children, int[] top) {
+            this.label = label;
+            this.childChars = childChars;
+            this.children = children;
+            this.top = top;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.ufc.search;
+
+import com.example.ufc.entity.Comment;
+import com.example.ufc.entity.Topic;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Database-side substring search used by the admin lists, where every match is wanted rather than a ranked page.
+ * The implementation is picked with {@code search.text.backend}: {@code fulltext} on MySQL, {@code like} elsewhere.
+ * The paged variants are ordered newest first, or by relevance with {@code fulltext}.
+ */
+public interface TextSearchBackend {
+
+    List<Topic> searchTopics(String search);
+
+    Page<Topic> searchTopics(String search, Pageable pageable);
+
+    Page<Comment> searchComments(String search, Pageable pageable);
+}
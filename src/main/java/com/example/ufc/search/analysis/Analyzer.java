@@ -0,0 +1,85 @@
+package com.example.ufc.search.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text into tokens and runs each one through a chain of {@link TokenFilter}s.
+ * Indexing and querying must use the same analyzer so both sides produce the same terms.
+ * A single {@link TermBuffer} is reused for every token of a call; the analyzer itself is stateless.
+ */
+public class Analyzer {
+
+    // Longer runs are almost always URLs or junk and would only bloat the dictionary
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private final List<TokenFilter> filters;
+
+    public Analyzer(List<TokenFilter> filters) {
+        this.filters = List.copyOf(filters);
+    }
+
+    /**
+     * Receives each surviving term. The buffer is reused for the next token, so copy what you keep.
+     */
+    @FunctionalInterface
+    public interface TermSink {
+        void accept(TermBuffer term);
+    }
+
+    public void analyze(String text, TermSink sink) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+
+        TermBuffer term = new TermBuffer();
+        int length = text.length();
+        int position = 0;
+        int i = 0;
+
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && isWordPart(text.charAt(i))) {
+                i++;
+            }
+            if (i == start) {
+                continue;
+            }
+            if (i - start > MAX_TOKEN_LENGTH) {
+                position++;
+                continue;
+            }
+
+            term.reset(text, start, i, position++);
+            if (applyFilters(term)) {
+                sink.accept(term);
+            }
+        }
+    }
+
+    /**
+     * Convenience for short inputs such as queries.
+     */
+    public List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        analyze(text, term -> terms.add(term.toString()));
+        return terms;
+    }
+
+    private boolean applyFilters(TermBuffer term) {
+        for (TokenFilter filter : filters) {
+            if (!filter.apply(term)) {
+                return false;
+            }
+        }
+        return term.length() > 0;
+    }
+
+    // Combining marks belong to the word so the normalization filter can fold them
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK;
+    }
+}
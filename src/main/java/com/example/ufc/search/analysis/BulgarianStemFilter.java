@@ -0,0 +1,121 @@
+package com.example.ufc.search.analysis;
+
+/**
+ * Light stemmer for Bulgarian: strips definite articles, plural endings and a few inflections
+ * so that e.g. "боеве" and "боевете" reduce to the same stem. Follows the rules of
+ * J. Savoy, "Searching Strategies for the Bulgarian Language" (2007).
+ * Expects lowercase Cyrillic input; other scripts pass through unchanged.
+ */
+public class BulgarianStemFilter implements TokenFilter {
+
+    @Override
+    public boolean apply(TermBuffer term) {
+        term.setLength(stem(term, term.chars(), term.length()));
+        return true;
+    }
+
+    private int stem(TermBuffer term, char[] s, int len) {
+        if (len < 4) {
+            return len;
+        }
+
+        if (len > 5 && term.endsWith("ища")) {
+            return len - 3;
+        }
+
+        len = removeArticle(term, len);
+        term.setLength(len);
+        len = removePlural(term, s, len);
+        term.setLength(len);
+
+        if (len > 3) {
+            char last = s[len - 1];
+            if (last == 'я' || last == 'а' || last == 'е') {
+                len--;
+                term.setLength(len);
+            }
+        }
+
+        // -ен -> -н
+        if (len > 4 && term.endsWith("ен")) {
+            s[len - 2] = 'н';
+            len--;
+            term.setLength(len);
+        }
+
+        // Drop a fleeting ъ before the final consonant
+        if (len > 5 && s[len - 2] == 'ъ') {
+            s[len - 2] = s[len - 1];
+            len--;
+        }
+
+        return len;
+    }
+
+    private int removeArticle(TermBuffer term, int len) {
+        if (len > 6 && term.endsWith("ият")) {
+            return len - 3;
+        }
+
+        if (len > 5) {
+            if (term.endsWith("ът") || term.endsWith("то") || term.endsWith("те")
+                    || term.endsWith("та") || term.endsWith("ия")) {
+                return len - 2;
+            }
+        }
+
+        if (len > 4 && term.endsWith("ят")) {
+            return len - 2;
+        }
+
+        return len;
+    }
+
+    private int removePlural(TermBuffer term, char[] s, int len) {
+        if (len > 6) {
+            if (term.endsWith("овци")) {
+                return len - 3; // replace with о
+            }
+            if (term.endsWith("ове")) {
+                return len - 3;
+            }
+            if (term.endsWith("еве")) {
+                s[len - 3] = 'й'; // replace with й
+                return len - 2;
+            }
+        }
+
+        if (len > 5) {
+            if (term.endsWith("ища")) {
+                return len - 3;
+            }
+            if (term.endsWith("та")) {
+                return len - 2;
+            }
+            if (term.endsWith("ци")) {
+                s[len - 2] = 'к'; // replace with к
+                return len - 1;
+            }
+            if (term.endsWith("зи")) {
+                s[len - 2] = 'г'; // replace with г
+                return len - 1;
+            }
+            if (s[len - 3] == 'е' && s[len - 1] == 'и') {
+                s[len - 3] = 'я'; // replace е with я, remove и
+                return len - 1;
+            }
+        }
+
+        if (len > 4) {
+            if (term.endsWith("си")) {
+                s[len - 2] = 'х'; // replace with х
+                return len - 1;
+            }
+            if (term.endsWith("и")) {
+                return len - 1;
+            }
+        }
+
+        return len;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ufc.search.analysis;
+
+import java.util.Collection;
+
+/**
+ * Immutable set of words that can be probed with a char range, so lookups need no String.
+ */
+final class CharArraySet {
+
+    private final char[][] entries;
+    private final int mask;
+
+    CharArraySet(Collection<String> words) {
+        int capacity = Integer.highestOneBit(Math.max(4, words.size() * 2) - 1) << 1;
+        this.entries = new char[capacity][];
+        this.mask = capacity - 1;
+        for (String word : words) {
+            char[] chars = word.toCharArray();
+            int slot = hash(chars, chars.length) & mask;
+            while (entries[slot] != null && !equals(entries[slot], chars, chars.length)) {
+                slot = (slot + 1) & mask;
+            }
+            entries[slot] = chars;
+        }
+    }
+
+    boolean contains(char[] chars, int length) {
+        int slot = hash(chars, length) & mask;
+        while (entries[slot] != null) {
+            if (equals(entries[slot], chars, length)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    static int hash(char[] chars, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    static boolean equals(char[] entry, char[] chars, int length) {
+        if (entry.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (entry[i] != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.ufc.search.analysis;
+
+public class LowercaseFilter implements TokenFilter {
+
+    @Override
+    public boolean apply(TermBuffer term) {
+        char[] chars = term.chars();
+        for (int i = 0; i < term.length(); i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.ufc.search.analysis;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Drops words too common to help ranking. Expects lowercase, normalized input.
+ */
+public class StopwordFilter implements TokenFilter {
+
+    public static final List<String> BULGARIAN_STOPWORDS = List.of(
+            "а", "аз", "ако", "би", "бил", "била", "били", "било", "в", "во", "вие", "вас", "ви", "все", "вече",
+            "го", "да", "дали", "до", "е", "един", "една", "едно", "ето", "за", "и", "или", "им", "като", "какво",
+            "кой", "коя", "които", "който", "към", "ли", "ме", "ми", "му", "на", "над", "не", "него", "ние", "ни",
+            "но", "нея", "о", "от", "по", "под", "при", "пред", "през", "са", "се", "си", "след", "с", "със", "също",
+            "та", "така", "те", "ти", "то", "това", "тази", "този", "той", "тук", "тя", "у", "че", "ще", "я");
+
+    public static final List<String> ENGLISH_STOPWORDS = List.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or",
+            "that", "the", "this", "to", "was", "with");
+
+    private final CharArraySet stopwords;
+
+    public StopwordFilter(Collection<String> stopwords) {
+        this.stopwords = new CharArraySet(stopwords);
+    }
+
+    @Override
+    public boolean apply(TermBuffer term) {
+        return !stopwords.contains(term.chars(), term.length());
+    }
+}
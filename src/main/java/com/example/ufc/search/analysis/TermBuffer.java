@@ -0,0 +1,106 @@
+package com.example.ufc.search.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Mutable, reusable holder for the term currently flowing through the analyzer chain.
+ * Filters rewrite the characters in place, so analysing a document allocates a String
+ * only for the terms that are finally emitted.
+ */
+public final class TermBuffer {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private char[] chars = new char[INITIAL_CAPACITY];
+    private char[] scratch = new char[INITIAL_CAPACITY];
+    private int length;
+    private int position;
+    private int startOffset;
+    private int endOffset;
+
+    void reset(CharSequence text, int start, int end, int position) {
+        setLength(end - start);
+        for (int i = start; i < end; i++) {
+            chars[i - start] = text.charAt(i);
+        }
+        this.position = position;
+        this.startOffset = start;
+        this.endOffset = end;
+    }
+
+    public char[] chars() {
+        return chars;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Sets the term length, growing the backing array if needed (existing characters are kept).
+     */
+    public void setLength(int length) {
+        if (length > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(length, chars.length * 2));
+        }
+        this.length = length;
+    }
+
+    /**
+     * Reusable work array of at least the given capacity, for filters that cannot rewrite in place.
+     * Its contents are undefined on each call.
+     */
+    public char[] scratch(int capacity) {
+        if (capacity > scratch.length) {
+            scratch = new char[Math.max(capacity, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    /**
+     * Replaces the term with the first {@code length} characters of {@code source}.
+     */
+    public void copyFrom(char[] source, int length) {
+        setLength(length);
+        System.arraycopy(source, 0, chars, 0, length);
+    }
+
+    public boolean endsWith(String suffix) {
+        int offset = length - suffix.length();
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (chars[offset + i] != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Index of the term among all tokens of the text, counting dropped ones.
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Start of the original token in the analysed text.
+     */
+    public int startOffset() {
+        return startOffset;
+    }
+
+    /**
+     * End (exclusive) of the original token in the analysed text.
+     */
+    public int endOffset() {
+        return endOffset;
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
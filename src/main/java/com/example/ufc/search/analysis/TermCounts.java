@@ -0,0 +1,118 @@
+package com.example.ufc.search.analysis;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Accumulates weighted term frequencies straight from {@link TermBuffer}s, creating a String
+ * only the first time a distinct term is seen instead of once per occurrence.
+ * Optionally records where each occurrence is in the source text, for highlighting.
+ */
+public final class TermCounts {
+
+    private char[][] keys = new char[16][];
+    private float[] weights = new float[16];
+    private int[][] offsets = new int[16][];
+    private int[] offsetCounts = new int[16];
+    private int size;
+
+    public void add(TermBuffer term, float weight) {
+        add(term, weight, false);
+    }
+
+    /**
+     * @param recordOffsets whether to remember the term's (start, end) offsets in the analyzed text
+     */
+    public void add(TermBuffer term, float weight, boolean recordOffsets) {
+        char[] chars = term.chars();
+        int length = term.length();
+        int mask = keys.length - 1;
+        int slot = CharArraySet.hash(chars, length) & mask;
+
+        while (keys[slot] != null) {
+            if (CharArraySet.equals(keys[slot], chars, length)) {
+                weights[slot] += weight;
+                if (recordOffsets) {
+                    addOffsets(slot, term);
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        char[] key = new char[length];
+        System.arraycopy(chars, 0, key, 0, length);
+        keys[slot] = key;
+        weights[slot] = weight;
+        if (recordOffsets) {
+            addOffsets(slot, term);
+        }
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Map<String, Float> toMap() {
+        Map<String, Float> result = new HashMap<>(size * 2);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                result.put(new String(keys[i]), weights[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Recorded (start, end) offset pairs per term; terms added without offsets are absent.
+     */
+    public Map<String, int[]> offsetsMap() {
+        Map<String, int[]> result = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && offsetCounts[i] > 0) {
+                result.put(new String(keys[i]), Arrays.copyOf(offsets[i], offsetCounts[i]));
+            }
+        }
+        return result;
+    }
+
+    private void addOffsets(int slot, TermBuffer term) {
+        int[] pairs = offsets[slot];
+        if (pairs == null) {
+            pairs = offsets[slot] = new int[4];
+        } else if (offsetCounts[slot] == pairs.length) {
+            pairs = offsets[slot] = Arrays.copyOf(pairs, pairs.length * 2);
+        }
+        pairs[offsetCounts[slot]++] = term.startOffset();
+        pairs[offsetCounts[slot]++] = term.endOffset();
+    }
+
+    private void grow() {
+        char[][] oldKeys = keys;
+        float[] oldWeights = weights;
+        int[][] oldOffsets = offsets;
+        int[] oldOffsetCounts = offsetCounts;
+        keys = new char[oldKeys.length * 2][];
+        weights = new float[oldKeys.length * 2];
+        offsets = new int[oldKeys.length * 2][];
+        offsetCounts = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = CharArraySet.hash(oldKeys[i], oldKeys[i].length) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                weights[slot] = oldWeights[i];
+                offsets[slot] = oldOffsets[i];
+                offsetCounts[slot] = oldOffsetCounts[i];
+            }
+        }
+    }
+}
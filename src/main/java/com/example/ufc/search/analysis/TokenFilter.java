@@ -0,0 +1,13 @@
+package com.example.ufc.search.analysis;
+
+/**
+ * One step of the analyzer chain. Implementations rewrite the term in place and must not
+ * allocate per term, because the chain runs on every post write and every query.
+ */
+public interface TokenFilter {
+
+    /**
+     * @return {@code false} to drop the term
+     */
+    boolean apply(TermBuffer term);
+}
@@ -0,0 +1,49 @@
+package com.example.ufc.search.analysis;
+
+/**
+ * Folds Cyrillic onto Latin using the Bulgarian streamlined transliteration system, so that
+ * "Хабиб", "Habib" and "Khabib" all index as "habib". The digraph "kh" folds to "h"
+ * because both spellings are common for х. Expects lowercase input.
+ */
+public class TransliterationFilter implements TokenFilter {
+
+    private static final char CYRILLIC_START = 'а';
+
+    // а..я; the Russian letters ы and э map to what they are usually typed as
+    private static final String[] CYRILLIC_TO_LATIN = {
+            "a", "b", "v", "g", "d", "e", "zh", "z", "i", "y", "k", "l", "m", "n", "o", "p",
+            "r", "s", "t", "u", "f", "h", "ts", "ch", "sh", "sht", "a", "y", "y", "e", "yu", "ya"
+    };
+
+    @Override
+    public boolean apply(TermBuffer term) {
+        int length = term.length();
+        char[] chars = term.chars();
+        char[] out = term.scratch(length * 3);
+        int count = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c >= CYRILLIC_START && c < CYRILLIC_START + CYRILLIC_TO_LATIN.length) {
+                String latin = CYRILLIC_TO_LATIN[c - CYRILLIC_START];
+                for (int j = 0; j < latin.length(); j++) {
+                    count = append(out, count, latin.charAt(j));
+                }
+            } else {
+                count = append(out, count, c);
+            }
+        }
+
+        term.copyFrom(out, count);
+        return count > 0;
+    }
+
+    private static int append(char[] out, int count, char c) {
+        if (c == 'h' && count > 0 && out[count - 1] == 'k') {
+            out[count - 1] = 'h';
+            return count;
+        }
+        out[count] = c;
+        return count + 1;
+    }
+}
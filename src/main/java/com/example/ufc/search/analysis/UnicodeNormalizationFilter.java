@@ -0,0 +1,65 @@
+package com.example.ufc.search.analysis;
+
+import java.text.Normalizer;
+
+/**
+ * Folds visually equivalent spellings onto one form: full-width ASCII becomes ASCII,
+ * accented Latin letters lose their accents, and Cyrillic ѝ/ё become и/е.
+ * Combining marks typed in decomposed form are dropped, except the breve that turns и into й.
+ * Expects lowercase input.
+ */
+public class UnicodeNormalizationFilter implements TokenFilter {
+
+    private static final char LATIN_FOLD_START = 'À';
+    private static final char LATIN_FOLD_END = 'ɏ';
+    private static final char[] LATIN_FOLDS = buildLatinFolds();
+
+    private static final char COMBINING_BREVE = '\u0306';
+
+    @Override
+    public boolean apply(TermBuffer term) {
+        char[] chars = term.chars();
+        int out = 0;
+        for (int i = 0; i < term.length(); i++) {
+            char c = chars[i];
+
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                if (c == COMBINING_BREVE && out > 0 && chars[out - 1] == 'и') {
+                    chars[out - 1] = 'й';
+                }
+                continue;
+            }
+
+            chars[out++] = fold(c);
+        }
+        term.setLength(out);
+        return out > 0;
+    }
+
+    private static char fold(char c) {
+        if (c >= '\uFF01' && c <= '\uFF5E') {
+            return (char) (c - 0xFEE0);
+        }
+        if (c >= LATIN_FOLD_START && c <= LATIN_FOLD_END) {
+            return LATIN_FOLDS[c - LATIN_FOLD_START];
+        }
+        if (c == 'ѝ') {
+            return 'и';
+        }
+        if (c == 'ё') {
+            return 'е';
+        }
+        return c;
+    }
+
+    // Computed once, so per-term folding is a table lookup rather than a Normalizer call
+    private static char[] buildLatinFolds() {
+        char[] folds = new char[LATIN_FOLD_END - LATIN_FOLD_START + 1];
+        for (char c = LATIN_FOLD_START; c <= LATIN_FOLD_END; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            char base = decomposed.charAt(0);
+            folds[c - LATIN_FOLD_START] = base < 0x80 ? base : c;
+        }
+        return folds;
+    }
+}
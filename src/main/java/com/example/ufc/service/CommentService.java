@@ -1,8 +1,11 @@
 package com.example.ufc.service;
 
+import com.example.ufc.dto.CommentTotalsDto;
 import com.example.ufc.entity.Comment;
 import com.example.ufc.entity.Post;
 import com.example.ufc.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,7 +20,8 @@ public interface CommentService {
 
     // Admin methods
     long getTotalCommentCount();
-    List<Comment> getAllComments();
-    List<Comment> searchComments(String search);
+    Page<Comment> getAllComments(Pageable pageable);
+    Page<Comment> searchComments(String search, Pageable pageable);
+    CommentTotalsDto getCommentTotals();
 }
 
@@ -0,0 +1,50 @@
+package com.example.ufc.service;
+
+import com.example.ufc.entity.Role;
+import com.example.ufc.entity.User;
+
+/**
+ * What a request needs to know about the signed-in user: identity, role and whether the account is
+ * active. Immutable, so one snapshot can be shared by concurrent requests; load the {@link User} for writes.
+ */
+public final class CurrentUser {
+
+    private final Long id;
+    private final String username;
+    private final Role role;
+    private final boolean active;
+
+    public CurrentUser(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.role = user.getRole();
+        this.active = Boolean.TRUE.equals(user.getIsActive());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public boolean isModerator() {
+        return role == Role.MODERATOR || role == Role.ADMIN;
+    }
+
+    /**
+     * Same rule as {@link com.example.ufc.entity.Topic#canBeModifiedBy}: the author or a moderator.
+     */
+    public boolean canModify(User author) {
+        return id.equals(author.getId()) || isModerator();
+    }
+}
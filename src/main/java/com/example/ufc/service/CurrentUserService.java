@@ -0,0 +1,11 @@
+package com.example.ufc.service;
+
+import java.util.Optional;
+
+public interface CurrentUserService {
+
+    /**
+     * The signed-in user of the current request, or empty for anonymous requests and unknown users.
+     */
+    Optional<CurrentUser> getCurrentUser();
+}
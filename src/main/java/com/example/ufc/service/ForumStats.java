@@ -0,0 +1,110 @@
+package com.example.ufc.service;
+
+import com.example.ufc.dto.CategoryStatsDto;
+import com.example.ufc.entity.TopicCategory;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Point-in-time forum counters, as kept in memory by {@link ForumStatsService}.
+ */
+public final class ForumStats {
+
+    private final long totalUsers;
+    private final long activeUsers;
+    private final long bannedUsers;
+    private final long newUsersToday;
+    private final long newUsersThisWeek;
+    private final long newUsersThisMonth;
+    private final long totalTopics;
+    private final long pinnedTopics;
+    private final long lockedTopics;
+    private final long totalPosts;
+    private final long totalComments;
+    private final Map<TopicCategory, CategoryStatsDto> categories;
+
+    public ForumStats(long totalUsers, long activeUsers, long bannedUsers,
+                      long newUsersToday, long newUsersThisWeek, long newUsersThisMonth,
+                      long totalTopics, long pinnedTopics, long lockedTopics,
+                      long totalPosts, long totalComments, Map<TopicCategory, CategoryStatsDto> categories) {
+        this.totalUsers = totalUsers;
+        this.activeUsers = activeUsers;
+        this.bannedUsers = bannedUsers;
+        this.newUsersToday = newUsersToday;
+        this.newUsersThisWeek = newUsersThisWeek;
+        this.newUsersThisMonth = newUsersThisMonth;
+        this.totalTopics = totalTopics;
+        this.pinnedTopics = pinnedTopics;
+        this.lockedTopics = lockedTopics;
+        this.totalPosts = totalPosts;
+        this.totalComments = totalComments;
+        this.categories = Collections.unmodifiableMap(new EnumMap<>(categories));
+    }
+
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+
+    public long getActiveUsers() {
+        return activeUsers;
+    }
+
+    public long getBannedUsers() {
+        return bannedUsers;
+    }
+
+    public long getNewUsersToday() {
+        return newUsersToday;
+    }
+
+    public long getNewUsersThisWeek() {
+        return newUsersThisWeek;
+    }
+
+    public long getNewUsersThisMonth() {
+        return newUsersThisMonth;
+    }
+
+    public long getTotalTopics() {
+        return totalTopics;
+    }
+
+    public long getPinnedTopics() {
+        return pinnedTopics;
+    }
+
+    public long getLockedTopics() {
+        return lockedTopics;
+    }
+
+    public long getTotalPosts() {
+        return totalPosts;
+    }
+
+    public long getTotalComments() {
+        return totalComments;
+    }
+
+    /**
+     * Totals of every category, in {@link TopicCategory} order.
+     */
+    public Map<TopicCategory, CategoryStatsDto> getCategories() {
+        return categories;
+    }
+
+    public CategoryStatsDto getCategory(TopicCategory category) {
+        return categories.get(category);
+    }
+
+    /**
+     * Topic count per {@code TopicCategory} name.
+     */
+    public Map<String, Long> getTopicsByCategory() {
+        Map<String, Long> topicsByCategory = new HashMap<>();
+        categories.forEach((category, stats) -> topicsByCategory.put(category.name(), stats.getTopicCount()));
+        return topicsByCategory;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.ufc.service;
+
+public interface ForumStatsService {
+    ForumStats getStats();
+    void reconcile();
+}
@@ -0,0 +1,33 @@
+package com.example.ufc.service;
+
+import com.example.ufc.dto.RecentTopicDto;
+
+import java.util.List;
+
+/**
+ * Everything the home page shows; served from memory, see {@code HomeService}.
+ */
+public final class HomePage {
+
+    private final long activeUserCount;
+    private final long totalTopics;
+    private final List<RecentTopicDto> recentTopics;
+
+    public HomePage(long activeUserCount, long totalTopics, List<RecentTopicDto> recentTopics) {
+        this.activeUserCount = activeUserCount;
+        this.totalTopics = totalTopics;
+        this.recentTopics = List.copyOf(recentTopics);
+    }
+
+    public long getActiveUserCount() {
+        return activeUserCount;
+    }
+
+    public long getTotalTopics() {
+        return totalTopics;
+    }
+
+    public List<RecentTopicDto> getRecentTopics() {
+        return recentTopics;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.ufc.service;
+
+public interface HomeService {
+    HomePage getHomePage();
+}
@@ -0,0 +1,43 @@
+package com.example.ufc.service;
+
+import com.example.ufc.entity.Post;
+
+import java.util.List;
+
+/**
+ * One page of a topic's posts in (createdAt, id) order, reached by keyset pagination.
+ * The cursors are opaque; pass them back as {@code after} / {@code before}. A {@code null} cursor
+ * means there is nothing in that direction.
+ */
+public final class PostPage {
+
+    private final List<Post> posts;
+    private final String previousCursor;
+    private final String nextCursor;
+
+    public PostPage(List<Post> posts, String previousCursor, String nextCursor) {
+        this.posts = posts;
+        this.previousCursor = previousCursor;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Post> getPosts() {
+        return posts;
+    }
+
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
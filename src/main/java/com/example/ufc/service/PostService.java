@@ -14,7 +14,9 @@ public interface PostService {
     Optional<Post> findById(Long id);
     List<Post> findByTopicId(Long topicId);
     Page<Post> findByTopicId(Long topicId, Pageable pageable);
+    PostPage findTopicPage(Long topicId, String after, String before, boolean last, int size);
     List<Post> findByAuthorId(Long authorId);
+    Page<Post> findByAuthorId(Long authorId, Pageable pageable);
     Post updatePost(Long postId, String content, User user);
     void deletePost(Long postId, User user);
     boolean canUserModifyPost(Post post, User user);
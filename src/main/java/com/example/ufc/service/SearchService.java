@@ -3,9 +3,10 @@ package com.example.ufc.service;
 import com.example.ufc.dto.SearchResultDto;
 
 public interface SearchService {
-    SearchResultDto search(String query, String type);
-    SearchResultDto searchTopics(String query);
-    SearchResultDto searchPosts(String query);
-    SearchResultDto searchUsers(String query);
+    SearchResultDto search(String query, String type, String cursor);
+    SearchResultDto search(String query, String type, String cursor, boolean fuzzy);
+    SearchResultDto searchTopics(String query, String cursor, boolean fuzzy);
+    SearchResultDto searchPosts(String query, String cursor, boolean fuzzy);
+    SearchResultDto searchUsers(String query, String cursor, boolean fuzzy);
 }
 
@@ -1,11 +1,15 @@
 package com.example.ufc.service;
 
+import com.example.ufc.dto.RecentTopicDto;
+import com.example.ufc.dto.TopicTotalsDto;
+import com.example.ufc.dto.TopicViewDto;
 import com.example.ufc.entity.Topic;
 import com.example.ufc.entity.TopicCategory;
 import com.example.ufc.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -13,14 +17,21 @@ import java.util.Optional;
 public interface TopicService {
     List<Topic> findAll();
     Optional<Topic> findById(Long id);
+    Optional<Topic> findByIdWithAuthors(Long id);
     Topic save(Topic topic);
     void deleteById(Long id);
     Page<Topic> findByCategory(TopicCategory category, Pageable pageable);
     Page<Topic> findAllOrderByPinnedAndLastPost(Pageable pageable);
+    Page<TopicViewDto> findTopicViews(Pageable pageable);
+    Page<TopicViewDto> findTopicViewsByCategory(TopicCategory category, Pageable pageable);
+    Page<TopicViewDto> findTopicViewsByAuthor(Long authorId, Pageable pageable);
+    List<RecentTopicDto> getRecentTopicViews(int limit);
     List<Topic> findTop5ByOrderByCreatedAtDesc();
     long countAllTopics();
     Topic createTopic(String title, String content, TopicCategory category, User author);
-    void incrementViewCount(Long topicId);
+    void incrementViewCount(Long topicId, String viewer);
+    void recordReply(Long topicId, User author, LocalDateTime postedAt);
+    void removeReply(Long topicId);
 
     // Admin methods
     long getTotalTopicCount();
@@ -30,6 +41,11 @@ public interface TopicService {
     List<Topic> getRecentTopics(int limit);
     List<Topic> searchTopics(String search);
     List<Topic> getTopicsByCategory(String category);
+    Page<TopicViewDto> getAllTopicViews(Pageable pageable);
+    Page<TopicViewDto> getTopicViewsByCategory(String category, Pageable pageable);
+    Page<TopicViewDto> searchTopicViews(String search, Pageable pageable);
+    TopicTotalsDto getTopicTotals();
+    TopicTotalsDto getTopicTotalsByCategory(String category);
     void pinTopic(Long id);
     void unpinTopic(Long id);
     void lockTopic(Long id);
@@ -25,8 +25,6 @@ public interface UserService {
 
     // Profile methods
     User updateProfile(User user, String bio, String avatarUrl);
-    long countUserTopics(Long userId);
-    long countUserPosts(Long userId);
 
     // Admin methods
     long getTotalUserCount();
@@ -35,11 +33,11 @@ public interface UserService {
     long getNewUsersToday();
     long getNewUsersThisWeek();
     long getNewUsersThisMonth();
-    List<User> getAllUsers();
+    Page<User> getAllUsers(Pageable pageable);
     List<User> getRecentUsers(int limit);
-    List<User> searchUsers(String search);
-    List<User> getUsersByRole(String role);
-    List<User> getBannedUsers();
+    Page<User> searchUsers(String search, Pageable pageable);
+    Page<User> getUsersByRole(String role, Pageable pageable);
+    Page<User> getBannedUsers(Pageable pageable);
     User getUserById(Long id);
     void updateUserByAdmin(Long id, UserUpdateDto userUpdateDto);
     void banUser(Long id);
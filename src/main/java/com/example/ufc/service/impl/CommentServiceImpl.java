@@ -1,11 +1,17 @@
 package com.example.ufc.service.impl;
 
+import com.example.ufc.dto.CommentTotalsDto;
 import com.example.ufc.entity.Comment;
 import com.example.ufc.entity.Post;
 import com.example.ufc.entity.User;
+import com.example.ufc.event.CommentEvent;
 import com.example.ufc.repository.CommentRepository;
+import com.example.ufc.search.TextSearchBackend;
 import com.example.ufc.service.CommentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,10 +24,15 @@ import java.util.Optional;
 public class CommentServiceImpl implements CommentService {
 
     private final CommentRepository commentRepository;
+    private final TextSearchBackend textSearchBackend;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CommentServiceImpl(CommentRepository commentRepository) {
+    public CommentServiceImpl(CommentRepository commentRepository, TextSearchBackend textSearchBackend,
+                              ApplicationEventPublisher eventPublisher) {
         this.commentRepository = commentRepository;
+        this.textSearchBackend = textSearchBackend;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -31,7 +42,9 @@ public class CommentServiceImpl implements CommentService {
         comment.setPost(post);
         comment.setAuthor(author);
         comment.setCreatedAt(LocalDateTime.now());
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new CommentEvent(CommentEvent.Type.CREATED, savedComment.getId(), post.getId()));
+        return savedComment;
     }
 
     @Override
@@ -54,7 +67,11 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     public void deleteComment(Long commentId) {
-        commentRepository.deleteById(commentId);
+        commentRepository.findById(commentId).ifPresent(comment -> {
+            commentRepository.delete(comment);
+            eventPublisher.publishEvent(
+                    new CommentEvent(CommentEvent.Type.DELETED, commentId, comment.getPost().getId()));
+        });
     }
 
     @Override
@@ -73,14 +90,20 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Comment> getAllComments() {
-        return commentRepository.findAllByOrderByCreatedAtDesc();
+    public Page<Comment> getAllComments(Pageable pageable) {
+        return commentRepository.findAllByOrderByCreatedAtDesc(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Comment> searchComments(String search) {
-        return commentRepository.searchByContent(search);
+    public Page<Comment> searchComments(String search, Pageable pageable) {
+        return textSearchBackend.searchComments(search, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CommentTotalsDto getCommentTotals() {
+        return commentRepository.findCommentTotals();
     }
 }
 
@@ -0,0 +1,41 @@
+package com.example.ufc.service.impl;
+
+import com.example.ufc.service.CurrentUser;
+import com.example.ufc.service.CurrentUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Optional;
+
+/**
+ * Resolves the signed-in user at most once per request, from {@link UserSnapshotCache}.
+ */
+@Service
+@RequestScope
+public class CurrentUserServiceImpl implements CurrentUserService {
+
+    private final UserSnapshotCache snapshotCache;
+
+    private Optional<CurrentUser> currentUser;
+
+    @Autowired
+    public CurrentUserServiceImpl(UserSnapshotCache snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    @Override
+    public Optional<CurrentUser> getCurrentUser() {
+        if (currentUser == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            currentUser = authentication == null || !authentication.isAuthenticated()
+                    || authentication instanceof AnonymousAuthenticationToken
+                    ? Optional.empty()
+                    : snapshotCache.get(authentication.getName());
+        }
+        return currentUser;
+    }
+}
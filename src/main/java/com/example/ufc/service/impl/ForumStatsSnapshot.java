@@ -0,0 +1,218 @@
+package com.example.ufc.service.impl;
+
+import com.example.ufc.dto.CategoryStatsDto;
+import com.example.ufc.entity.TopicCategory;
+import com.example.ufc.event.CommentEvent;
+import com.example.ufc.event.PostEvent;
+import com.example.ufc.event.TopicEvent;
+import com.example.ufc.event.UserEvent;
+import com.example.ufc.repository.CommentRepository;
+import com.example.ufc.repository.PostRepository;
+import com.example.ufc.repository.TopicRepository;
+import com.example.ufc.repository.UserRepository;
+import com.example.ufc.service.ForumStats;
+import com.example.ufc.service.ForumStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Forum counters kept in memory. They are loaded from the database at startup, adjusted by the domain events
+ * the services publish after each write commits, and periodically recounted to correct any drift: writes that
+ * bypass the services, cascades, an event racing a recount, and the new-user windows moving on with the clock.
+ * <p>
+ * Per-category topic and reply totals follow the events; view totals are buffered per topic
+ * (see {@link TopicViewCounter}) and only catch up on each recount.
+ */
+@Service
+public class ForumStatsSnapshot implements ForumStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForumStatsSnapshot.class);
+
+    private final UserRepository userRepository;
+    private final TopicRepository topicRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong activeUsers = new AtomicLong();
+    private final AtomicLong bannedUsers = new AtomicLong();
+    private final AtomicLong newUsersToday = new AtomicLong();
+    private final AtomicLong newUsersThisWeek = new AtomicLong();
+    private final AtomicLong newUsersThisMonth = new AtomicLong();
+    private final AtomicLong totalTopics = new AtomicLong();
+    private final AtomicLong pinnedTopics = new AtomicLong();
+    private final AtomicLong lockedTopics = new AtomicLong();
+    private final AtomicLong totalPosts = new AtomicLong();
+    private final AtomicLong totalComments = new AtomicLong();
+    private final Map<TopicCategory, CategoryCounters> categories = new EnumMap<>(TopicCategory.class);
+
+    private volatile boolean loaded;
+
+    @Autowired
+    public ForumStatsSnapshot(UserRepository userRepository, TopicRepository topicRepository,
+                              PostRepository postRepository, CommentRepository commentRepository) {
+        this.userRepository = userRepository;
+        this.topicRepository = topicRepository;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        for (TopicCategory category : TopicCategory.values()) {
+            categories.put(category, new CategoryCounters());
+        }
+    }
+
+    @Override
+    public ForumStats getStats() {
+        if (!loaded) {
+            reconcile();
+        }
+        Map<TopicCategory, CategoryStatsDto> categoryStats = new EnumMap<>(TopicCategory.class);
+        categories.forEach((category, counters) -> categoryStats.put(category, new CategoryStatsDto(category,
+                counters.topics.get(), counters.replies.get(), counters.views.get())));
+        return new ForumStats(totalUsers.get(), activeUsers.get(), bannedUsers.get(),
+                newUsersToday.get(), newUsersThisWeek.get(), newUsersThisMonth.get(),
+                totalTopics.get(), pinnedTopics.get(), lockedTopics.get(),
+                totalPosts.get(), totalComments.get(), categoryStats);
+    }
+
+    /**
+     * Recounts everything from the database. Differences found after the initial load are logged.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${forum.stats.reconcile-interval:600000}",
+            fixedDelayString = "${forum.stats.reconcile-interval:600000}")
+    public synchronized void reconcile() {
+        correct("totalUsers", totalUsers, userRepository.count());
+        correct("activeUsers", activeUsers, userRepository.countByIsActiveTrue());
+        correct("bannedUsers", bannedUsers, userRepository.countByIsActiveFalse());
+        correct("newUsersToday", newUsersToday, userRepository.countNewUsersToday());
+        correct("newUsersThisWeek", newUsersThisWeek, userRepository.countNewUsersThisWeek());
+        correct("newUsersThisMonth", newUsersThisMonth, userRepository.countNewUsersThisMonth());
+        correct("totalTopics", totalTopics, topicRepository.count());
+        correct("pinnedTopics", pinnedTopics, topicRepository.countByIsPinnedTrue());
+        correct("lockedTopics", lockedTopics, topicRepository.countByIsLockedTrue());
+        correct("totalPosts", totalPosts, postRepository.count());
+        correct("totalComments", totalComments, commentRepository.count());
+        Map<TopicCategory, CategoryStatsDto> actual = new EnumMap<>(TopicCategory.class);
+        for (CategoryStatsDto stats : topicRepository.findCategoryStats()) {
+            actual.put(stats.getCategory(), stats);
+        }
+        categories.forEach((category, counters) -> {
+            CategoryStatsDto stats = actual.getOrDefault(category, new CategoryStatsDto(category, 0L, 0L, 0L));
+            correct("topics." + category.name(), counters.topics, stats.getTopicCount());
+            correct("replies." + category.name(), counters.replies, stats.getReplyCount());
+            counters.views.set(stats.getViewCount());
+        });
+        loaded = true;
+    }
+
+    private void correct(String name, AtomicLong counter, long actual) {
+        long previous = counter.getAndSet(actual);
+        if (loaded && previous != actual) {
+            logger.info("Forum statistic {} drifted: {} in memory, {} in database", name, previous, actual);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicEvent(TopicEvent event) {
+        switch (event.getType()) {
+            case CREATED -> {
+                totalTopics.incrementAndGet();
+                categories.get(event.getCategory()).topics.incrementAndGet();
+            }
+            case DELETED -> {
+                totalTopics.decrementAndGet();
+                CategoryCounters counters = categories.get(event.getCategory());
+                counters.topics.decrementAndGet();
+                counters.replies.addAndGet(-event.getReplies());
+                counters.views.addAndGet(-event.getViews());
+                if (event.isPinned()) {
+                    pinnedTopics.decrementAndGet();
+                }
+                if (event.isLocked()) {
+                    lockedTopics.decrementAndGet();
+                }
+                totalPosts.addAndGet(-event.getRemovedPosts());
+                totalComments.addAndGet(-event.getRemovedComments());
+            }
+            case PINNED -> pinnedTopics.incrementAndGet();
+            case UNPINNED -> pinnedTopics.decrementAndGet();
+            case LOCKED -> lockedTopics.incrementAndGet();
+            case UNLOCKED -> lockedTopics.decrementAndGet();
+            case UPDATED -> {
+                // Category moves are left to the next reconcile
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostEvent(PostEvent event) {
+        switch (event.getType()) {
+            case CREATED -> {
+                totalPosts.incrementAndGet();
+                categories.get(event.getCategory()).replies.incrementAndGet();
+            }
+            case DELETED -> {
+                totalPosts.decrementAndGet();
+                categories.get(event.getCategory()).replies.decrementAndGet();
+                totalComments.addAndGet(-event.getRemovedComments());
+            }
+            case UPDATED -> {
+                // Nothing counted here changes
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentEvent(CommentEvent event) {
+        switch (event.getType()) {
+            case CREATED -> totalComments.incrementAndGet();
+            case DELETED -> totalComments.decrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(UserEvent event) {
+        switch (event.getType()) {
+            case REGISTERED -> {
+                totalUsers.incrementAndGet();
+                (event.isActive() ? activeUsers : bannedUsers).incrementAndGet();
+                newUsersToday.incrementAndGet();
+                newUsersThisWeek.incrementAndGet();
+                newUsersThisMonth.incrementAndGet();
+            }
+            case BANNED -> {
+                activeUsers.decrementAndGet();
+                bannedUsers.incrementAndGet();
+            }
+            case UNBANNED -> {
+                bannedUsers.decrementAndGet();
+                activeUsers.incrementAndGet();
+            }
+            case DELETED -> {
+                // New-user windows depend on the account's age and are left to the next reconcile
+                totalUsers.decrementAndGet();
+                (event.isActive() ? activeUsers : bannedUsers).decrementAndGet();
+            }
+            case UPDATED -> {
+                // Nothing counted here changes
+            }
+        }
+    }
+
+    private static final class CategoryCounters {
+        private final AtomicLong topics = new AtomicLong();
+        private final AtomicLong replies = new AtomicLong();
+        private final AtomicLong views = new AtomicLong();
+    }
+}
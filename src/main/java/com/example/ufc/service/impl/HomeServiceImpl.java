@@ -0,0 +1,86 @@
+package com.example.ufc.service.impl;
+
+import com.example.ufc.event.PostEvent;
+import com.example.ufc.event.TopicEvent;
+import com.example.ufc.dto.RecentTopicDto;
+import com.example.ufc.event.UserEvent;
+import com.example.ufc.service.ForumStats;
+import com.example.ufc.service.ForumStatsService;
+import com.example.ufc.service.HomePage;
+import com.example.ufc.service.HomeService;
+import com.example.ufc.service.TopicService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the home page without touching the database between writes. Counts come from {@link ForumStatsService};
+ * the recent topics are an in-memory snapshot that topic, post and user writes only invalidate (after their
+ * transaction commits). The next request rebuilds it, so a burst of writes costs one rebuild.
+ * <p>
+ * View counts are taken when the snapshot is built and are not updated by later views alone.
+ */
+@Service
+public class HomeServiceImpl implements HomeService {
+
+    static final int RECENT_TOPICS = 5;
+
+    private final TopicService topicService;
+    private final ForumStatsService forumStatsService;
+
+    // Bumped on every write; a snapshot built before the latest bump is stale
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public HomeServiceImpl(TopicService topicService, ForumStatsService forumStatsService) {
+        this.topicService = topicService;
+        this.forumStatsService = forumStatsService;
+    }
+
+    @Override
+    public HomePage getHomePage() {
+        ForumStats stats = forumStatsService.getStats();
+        return new HomePage(stats.getActiveUsers(), stats.getTotalTopics(), recentTopics());
+    }
+
+    private List<RecentTopicDto> recentTopics() {
+        Snapshot current = snapshot;
+        long latest = generation.get();
+        if (current != null && current.generation == latest) {
+            return current.recentTopics;
+        }
+        // Concurrent misses may each rebuild; any of the results is current for this generation
+        List<RecentTopicDto> recentTopics = List.copyOf(topicService.getRecentTopicViews(RECENT_TOPICS));
+        snapshot = new Snapshot(latest, recentTopics);
+        return recentTopics;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicEvent(TopicEvent event) {
+        generation.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostEvent(PostEvent event) {
+        generation.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(UserEvent event) {
+        generation.incrementAndGet();
+    }
+
+    private static final class Snapshot {
+        private final long generation;
+        private final List<RecentTopicDto> recentTopics;
+
+        private Snapshot(long generation, List<RecentTopicDto> recentTopics) {
+            this.generation = generation;
+            this.recentTopics = recentTopics;
+        }
+    }
+}
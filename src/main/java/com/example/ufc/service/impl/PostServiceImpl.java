@@ -3,16 +3,25 @@ package com.example.ufc.service.impl;
 import com.example.ufc.entity.Post;
 import com.example.ufc.entity.Topic;
 import com.example.ufc.entity.User;
+import com.example.ufc.event.PostEvent;
 import com.example.ufc.repository.PostRepository;
+import com.example.ufc.service.PostPage;
 import com.example.ufc.service.PostService;
 import com.example.ufc.service.TopicService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,27 +31,36 @@ public class PostServiceImpl implements PostService {
 
     private final PostRepository postRepository;
     private final TopicService topicService;
+    private final UserCounters userCounters;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public PostServiceImpl(PostRepository postRepository, TopicService topicService) {
+    public PostServiceImpl(PostRepository postRepository, TopicService topicService, UserCounters userCounters,
+                           ApplicationEventPublisher eventPublisher) {
         this.postRepository = postRepository;
         this.topicService = topicService;
+        this.userCounters = userCounters;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public Post createPost(String content, Topic topic, User author) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Update topic statistics first: the post's foreign key check would otherwise share-lock the
+        // topic row before this update needs it exclusively, and concurrent replies would deadlock
+        topicService.recordReply(topic.getId(), author, now);
+
         Post post = new Post();
         post.setContent(content);
         post.setTopic(topic);
         post.setAuthor(author);
-        post.setCreatedAt(LocalDateTime.now());
+        post.setCreatedAt(now);
 
         Post savedPost = postRepository.save(post);
+        userCounters.postCreated(author.getId());
 
-        // Update topic statistics
-        topic.incrementReplyCount();
-        topic.updateLastPost(author);
-
+        eventPublisher.publishEvent(new PostEvent(PostEvent.Type.CREATED, savedPost));
         return savedPost;
     }
 
@@ -64,12 +82,75 @@ public class PostServiceImpl implements PostService {
         return postRepository.findByTopicId(topicId, pageable);
     }
 
+    /**
+     * Keyset pagination: each page is an index range scan that starts at the cursor post, so its cost
+     * doesn't depend on how deep in the topic it is. The last page is read backwards from the end.
+     * One extra row is fetched to tell whether there is more in the direction of travel.
+     *
+     * @param after  cursor of the post the page starts after, or {@code null}
+     * @param before cursor of the post the page ends before, or {@code null}
+     * @param last   whether to return the last page (ignored when a cursor is given)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PostPage findTopicPage(Long topicId, String after, String before, boolean last, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        if (after != null && !after.isBlank()) {
+            PostKey key = PostKey.decode(after);
+            List<Post> posts = postRepository.findTopicPostsAfter(topicId, key.createdAt, key.id, limit);
+            boolean more = posts.size() > size;
+            posts = trim(posts, size);
+            return new PostPage(posts, cursorOf(posts, 0), more ? cursorOf(posts, posts.size() - 1) : null);
+        }
+        if (before != null && !before.isBlank()) {
+            PostKey key = PostKey.decode(before);
+            List<Post> posts = postRepository.findTopicPostsBefore(topicId, key.createdAt, key.id, limit);
+            boolean more = posts.size() > size;
+            posts = reversed(trim(posts, size));
+            return new PostPage(posts, more ? cursorOf(posts, 0) : null, cursorOf(posts, posts.size() - 1));
+        }
+        if (last) {
+            List<Post> posts = postRepository.findTopicPostsLast(topicId, limit);
+            boolean more = posts.size() > size;
+            posts = reversed(trim(posts, size));
+            return new PostPage(posts, more ? cursorOf(posts, 0) : null, null);
+        }
+        List<Post> posts = postRepository.findTopicPostsFirst(topicId, limit);
+        boolean more = posts.size() > size;
+        posts = trim(posts, size);
+        return new PostPage(posts, null, more ? cursorOf(posts, posts.size() - 1) : null);
+    }
+
+    private static List<Post> trim(List<Post> posts, int size) {
+        return posts.size() > size ? posts.subList(0, size) : posts;
+    }
+
+    private static List<Post> reversed(List<Post> posts) {
+        List<Post> copy = new ArrayList<>(posts);
+        Collections.reverse(copy);
+        return copy;
+    }
+
+    private static String cursorOf(List<Post> posts, int index) {
+        if (posts.isEmpty()) {
+            return null;
+        }
+        Post post = posts.get(index);
+        return new PostKey(post.getCreatedAt(), post.getId()).encode();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Post> findByAuthorId(Long authorId) {
         return postRepository.findByAuthorId(authorId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Post> findByAuthorId(Long authorId, Pageable pageable) {
+        return postRepository.findByAuthorIdOrderByCreatedAtDesc(authorId, pageable);
+    }
+
     @Override
     public Post updatePost(Long postId, String content, User user) {
         Optional<Post> postOpt = postRepository.findById(postId);
@@ -87,7 +168,9 @@ public class PostServiceImpl implements PostService {
         post.setContent(content);
         post.setUpdatedAt(LocalDateTime.now());
 
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(new PostEvent(PostEvent.Type.UPDATED, savedPost));
+        return savedPost;
     }
 
     @Override
@@ -105,10 +188,14 @@ public class PostServiceImpl implements PostService {
         }
 
         Topic topic = post.getTopic();
+        long comments = post.getComments().size();
         postRepository.delete(post);
+        userCounters.postsDeleted(post.getAuthor().getId(), 1);
 
         // Update topic reply count
-        topic.decrementReplyCount();
+        topicService.removeReply(topic.getId());
+
+        eventPublisher.publishEvent(new PostEvent(PostEvent.Type.DELETED, post, comments));
     }
 
     @Override
@@ -133,4 +220,36 @@ public class PostServiceImpl implements PostService {
     public long getTotalPostCount() {
         return postRepository.count();
     }
+
+    /**
+     * Position of a post in (createdAt, id) order, encoded as an opaque URL-safe cursor.
+     */
+    private static final class PostKey {
+        private final LocalDateTime createdAt;
+        private final long id;
+
+        private PostKey(LocalDateTime createdAt, long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        static PostKey decode(String encoded) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.US_ASCII);
+                int separator = raw.indexOf('|');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Invalid page cursor");
+                }
+                return new PostKey(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid page cursor", e);
+            }
+        }
+    }
 }
@@ -1,174 +1,282 @@
 package com.example.ufc.service.impl;
 
 import com.example.ufc.dto.SearchResultDto;
+import com.example.ufc.entity.BaseEntity;
 import com.example.ufc.entity.Post;
 import com.example.ufc.entity.Topic;
 import com.example.ufc.entity.User;
 import com.example.ufc.repository.PostRepository;
 import com.example.ufc.repository.TopicRepository;
 import com.example.ufc.repository.UserRepository;
+import com.example.ufc.search.Highlighter;
+import com.example.ufc.search.SearchCursor;
+import com.example.ufc.search.SearchHits;
+import com.example.ufc.search.SearchIndex;
 import com.example.ufc.service.SearchService;
-import com.example.ufc.service.UserService;
+import com.example.ufc.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 @Transactional(readOnly = true)
 public class SearchServiceImpl implements SearchService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SearchServiceImpl.class);
+
+    private static final int ALL_PREVIEW_SIZE = 10;
+    private static final int EXCERPT_LENGTH = 150;
+
     private final TopicRepository topicRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final UserService userService;
+    private final SearchIndex searchIndex;
+    private final ThreadPoolTaskExecutor searchExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long allTimeoutMillis;
 
     @Autowired
     public SearchServiceImpl(TopicRepository topicRepository, PostRepository postRepository,
-                            UserRepository userRepository, UserService userService) {
+                            UserRepository userRepository, SearchIndex searchIndex,
+                            @Qualifier("searchExecutor") ThreadPoolTaskExecutor searchExecutor,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${search.all.timeout-ms:500}") long allTimeoutMillis) {
         this.topicRepository = topicRepository;
         this.postRepository = postRepository;
         this.userRepository = userRepository;
-        this.userService = userService;
+        this.searchIndex = searchIndex;
+        this.searchExecutor = searchExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.allTimeoutMillis = allTimeoutMillis;
+    }
+
+    /**
+     * Not transactional itself: "all" searches hand each type to a worker with its own read-only
+     * transaction, and holding one open here would pin an extra connection for nothing.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SearchResultDto search(String query, String type, String cursor) {
+        return search(query, type, cursor, false);
     }
 
+    /**
+     * With {@code fuzzy} set, query words also match indexed words a typo or two away, ranked below exact matches.
+     */
     @Override
-    public SearchResultDto search(String query, String type) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SearchResultDto search(String query, String type, String cursor, boolean fuzzy) {
         if (query == null || query.trim().isEmpty()) {
             return new SearchResultDto();
         }
 
-        query = query.trim();
+        String trimmed = query.trim();
 
         SearchResultDto result = new SearchResultDto();
-        result.setQuery(query);
+        result.setQuery(trimmed);
 
         if (type == null || "all".equals(type)) {
             // Search all types
-            result = searchAll(query);
+            result = searchAll(trimmed, fuzzy);
         } else if ("topics".equals(type)) {
-            result = searchTopics(query);
+            result = readOnlyTransaction.execute(status -> searchTopics(trimmed, cursor, fuzzy));
         } else if ("posts".equals(type)) {
-            result = searchPosts(query);
+            result = readOnlyTransaction.execute(status -> searchPosts(trimmed, cursor, fuzzy));
         } else if ("users".equals(type)) {
-            result = searchUsers(query);
+            result = readOnlyTransaction.execute(status -> searchUsers(trimmed, cursor, fuzzy));
         }
 
         return result;
     }
 
-    private SearchResultDto searchAll(String query) {
+    /**
+     * Preview of the best hits of every type; paging continues from the single-type views.
+     * The three types are searched in parallel, and a type that misses its time budget (or fails,
+     * or is shed by the bounded executor) is left empty and the result is flagged as partial.
+     */
+    private SearchResultDto searchAll(String query, boolean fuzzy) {
         SearchResultDto result = new SearchResultDto();
         result.setQuery(query);
 
-        // Search topics
-        List<Topic> topics = topicRepository.findAll().stream()
-                .filter(t -> matchesTopic(t, query))
-                .limit(10)
-                .collect(Collectors.toList());
-
-        result.setTopics(topics.stream()
-                .map(this::convertToTopicSearchResult)
-                .collect(Collectors.toList()));
-
-        // Search posts
-        List<Post> posts = postRepository.findAll().stream()
-                .filter(p -> matchesPost(p, query))
-                .limit(10)
-                .collect(Collectors.toList());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(allTimeoutMillis);
+        Future<List<SearchResultDto.TopicSearchResult>> topics = submit("topics",
+                () -> convertTopics(findTopics(query, null, ALL_PREVIEW_SIZE, fuzzy), query, fuzzy));
+        Future<List<SearchResultDto.PostSearchResult>> posts = submit("posts",
+                () -> convertPosts(findPosts(query, null, ALL_PREVIEW_SIZE, fuzzy), query, fuzzy));
+        Future<List<SearchResultDto.UserSearchResult>> users = submit("users",
+                () -> convertUsers(findUsers(query, null, ALL_PREVIEW_SIZE, fuzzy)));
 
-        result.setPosts(posts.stream()
-                .map(this::convertToPostSearchResult)
-                .collect(Collectors.toList()));
+        result.setTopics(await("topics", topics, deadline, result));
+        result.setPosts(await("posts", posts, deadline, result));
+        result.setUsers(await("users", users, deadline, result));
 
-        // Search users
-        List<User> users = userRepository.findAll().stream()
-                .filter(u -> matchesUser(u, query))
-                .limit(10)
-                .collect(Collectors.toList());
+        return result;
+    }
 
-        result.setUsers(users.stream()
-                .map(this::convertToUserSearchResult)
-                .collect(Collectors.toList()));
+    private <R> Future<List<R>> submit(String type, Supplier<List<R>> search) {
+        try {
+            return searchExecutor.submit(() -> readOnlyTransaction.execute(status -> search.get()));
+        } catch (TaskRejectedException e) {
+            logger.warn("Search executor saturated, skipping {} for this search", type);
+            return null;
+        }
+    }
 
-        return result;
+    private <R> List<R> await(String type, Future<List<R>> future, long deadline, SearchResultDto result) {
+        if (future == null) {
+            result.setPartial(true);
+            return new ArrayList<>();
+        }
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Search for {} exceeded {} ms, returning partial results", type, allTimeoutMillis);
+        } catch (ExecutionException e) {
+            logger.error("Search for {} failed, returning partial results", type, e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        result.setPartial(true);
+        return new ArrayList<>();
     }
 
     @Override
-    public SearchResultDto searchTopics(String query) {
+    public SearchResultDto searchTopics(String query, String cursor, boolean fuzzy) {
         SearchResultDto result = new SearchResultDto();
         result.setQuery(query);
 
-        List<Topic> topics = topicRepository.findAll().stream()
-                .filter(t -> matchesTopic(t, query))
-                .limit(50)
-                .collect(Collectors.toList());
-
-        result.setTopics(topics.stream()
-                .map(this::convertToTopicSearchResult)
-                .collect(Collectors.toList()));
+        RankedPage<Topic> page = findTopics(query, parseCursor(cursor), Constants.SEARCH_PAGE_SIZE, fuzzy);
+        result.setTopics(convertTopics(page, query, fuzzy));
+        result.setNextCursor(page.nextCursor);
 
         return result;
     }
 
     @Override
-    public SearchResultDto searchPosts(String query) {
+    public SearchResultDto searchPosts(String query, String cursor, boolean fuzzy) {
         SearchResultDto result = new SearchResultDto();
         result.setQuery(query);
 
-        List<Post> posts = postRepository.findAll().stream()
-                .filter(p -> matchesPost(p, query))
-                .limit(50)
-                .collect(Collectors.toList());
-
-        result.setPosts(posts.stream()
-                .map(this::convertToPostSearchResult)
-                .collect(Collectors.toList()));
+        RankedPage<Post> page = findPosts(query, parseCursor(cursor), Constants.SEARCH_PAGE_SIZE, fuzzy);
+        result.setPosts(convertPosts(page, query, fuzzy));
+        result.setNextCursor(page.nextCursor);
 
         return result;
     }
 
     @Override
-    public SearchResultDto searchUsers(String query) {
+    public SearchResultDto searchUsers(String query, String cursor, boolean fuzzy) {
         SearchResultDto result = new SearchResultDto();
         result.setQuery(query);
 
-        List<User> users = userRepository.findAll().stream()
-                .filter(u -> matchesUser(u, query))
-                .limit(50)
-                .collect(Collectors.toList());
-
-        result.setUsers(users.stream()
-                .map(this::convertToUserSearchResult)
-                .collect(Collectors.toList()));
+        RankedPage<User> page = findUsers(query, parseCursor(cursor), Constants.SEARCH_PAGE_SIZE, fuzzy);
+        result.setUsers(convertUsers(page));
+        result.setNextCursor(page.nextCursor);
 
         return result;
     }
 
-    private boolean matchesTopic(Topic topic, String query) {
-        String lowerQuery = query.toLowerCase();
-        return topic.getTitle().toLowerCase().contains(lowerQuery) ||
-               (topic.getContent() != null && topic.getContent().toLowerCase().contains(lowerQuery));
+    private SearchCursor parseCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+    }
+
+    private RankedPage<Topic> findTopics(String query, SearchCursor after, int limit, boolean fuzzy) {
+        return loadPage(searchIndex.searchTopics(query, after, limit, fuzzy), topicRepository::findByIdIn);
     }
 
-    private boolean matchesPost(Post post, String query) {
-        String lowerQuery = query.toLowerCase();
-        return post.getContent().toLowerCase().contains(lowerQuery);
+    private RankedPage<Post> findPosts(String query, SearchCursor after, int limit, boolean fuzzy) {
+        return loadPage(searchIndex.searchPosts(query, after, limit, fuzzy), postRepository::findByIdIn);
     }
 
-    private boolean matchesUser(User user, String query) {
-        String lowerQuery = query.toLowerCase();
-        return user.getUsername().toLowerCase().contains(lowerQuery) ||
-               (user.getBio() != null && user.getBio().toLowerCase().contains(lowerQuery));
+    private RankedPage<User> findUsers(String query, SearchCursor after, int limit, boolean fuzzy) {
+        return loadPage(searchIndex.searchUsers(query, after, limit, fuzzy), userRepository::findAllById);
     }
 
-    private SearchResultDto.TopicSearchResult convertToTopicSearchResult(Topic topic) {
+    /**
+     * Loads only the entities for one page of ranked hits, preserving index order, with whatever the
+     * result rows show fetched in the same query.
+     * IDs without a visible row are skipped for this page only: the row may have been deleted (its
+     * DELETED event removes it from the index) or committed after this transaction's snapshot, and
+     * search must not change the index either way.
+     */
+    private <T extends BaseEntity> RankedPage<T> loadPage(SearchHits hits, Function<List<Long>, List<T>> loader) {
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            ids.add(hits.id(i));
+        }
+
+        Map<Long, T> loaded = new HashMap<>();
+        for (T entity : loader.apply(ids)) {
+            loaded.put(entity.getId(), entity);
+        }
+
+        List<T> entities = new ArrayList<>(loaded.size());
+        float[] scores = new float[loaded.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            T entity = loaded.get(ids.get(i));
+            if (entity != null) {
+                scores[entities.size()] = hits.score(i);
+                entities.add(entity);
+            }
+        }
+
+        // The cursor follows the last hit, so skipped hits don't shift the next page
+        SearchCursor next = hits.nextCursor();
+        return new RankedPage<>(entities, scores, next != null ? next.encode() : null);
+    }
+
+    private <T, R> List<R> convert(RankedPage<T> page, BiFunction<T, Float, R> converter) {
+        List<R> results = new ArrayList<>(page.entities.size());
+        for (int i = 0; i < page.entities.size(); i++) {
+            results.add(converter.apply(page.entities.get(i), page.scores[i]));
+        }
+        return results;
+    }
+
+    private List<SearchResultDto.TopicSearchResult> convertTopics(RankedPage<Topic> page, String query,
+                                                                 boolean fuzzy) {
+        List<String> terms = searchIndex.queryTerms(query);
+        return convert(page, (topic, score) -> convertToTopicSearchResult(topic, score, terms, fuzzy));
+    }
+
+    private List<SearchResultDto.PostSearchResult> convertPosts(RankedPage<Post> page, String query,
+                                                               boolean fuzzy) {
+        List<String> terms = searchIndex.queryTerms(query);
+        return convert(page, (post, score) -> convertToPostSearchResult(post, score, terms, fuzzy));
+    }
+
+    private SearchResultDto.TopicSearchResult convertToTopicSearchResult(Topic topic, float score,
+                                                                         List<String> terms, boolean fuzzy) {
         SearchResultDto.TopicSearchResult result = new SearchResultDto.TopicSearchResult();
         result.setId(topic.getId());
+        result.setScore(score);
         result.setTitle(topic.getTitle());
-        result.setExcerpt(createExcerpt(topic.getContent(), 150));
+        result.setExcerpt(Highlighter.excerpt(topic.getContent(),
+                searchIndex.topicMatches(topic.getId(), terms, fuzzy), EXCERPT_LENGTH));
         result.setAuthorUsername(topic.getAuthor().getUsername());
         result.setCategoryName(topic.getCategory().getDisplayName());
         result.setCreatedAt(topic.getCreatedAt());
@@ -177,11 +285,14 @@ public class SearchServiceImpl implements SearchService {
         return result;
     }
 
-    private SearchResultDto.PostSearchResult convertToPostSearchResult(Post post) {
+    private SearchResultDto.PostSearchResult convertToPostSearchResult(Post post, float score,
+                                                                       List<String> terms, boolean fuzzy) {
         SearchResultDto.PostSearchResult result = new SearchResultDto.PostSearchResult();
         result.setId(post.getId());
+        result.setScore(score);
         result.setContent(post.getContent());
-        result.setExcerpt(createExcerpt(post.getContent(), 150));
+        result.setExcerpt(Highlighter.excerpt(post.getContent(),
+                searchIndex.postMatches(post.getId(), terms, fuzzy), EXCERPT_LENGTH));
         result.setAuthorUsername(post.getAuthor().getUsername());
         result.setTopicId(post.getTopic().getId());
         result.setTopicTitle(post.getTopic().getTitle());
@@ -189,26 +300,32 @@ public class SearchServiceImpl implements SearchService {
         return result;
     }
 
-    private SearchResultDto.UserSearchResult convertToUserSearchResult(User user) {
+    private List<SearchResultDto.UserSearchResult> convertUsers(RankedPage<User> page) {
+        return convert(page, this::convertToUserSearchResult);
+    }
+
+    private SearchResultDto.UserSearchResult convertToUserSearchResult(User user, float score) {
         SearchResultDto.UserSearchResult result = new SearchResultDto.UserSearchResult();
         result.setId(user.getId());
+        result.setScore(score);
         result.setUsername(user.getUsername());
         result.setBio(user.getBio());
         result.setRole(user.getRole().name());
         result.setCreatedAt(user.getCreatedAt());
-        result.setTopicCount((int) userService.countUserTopics(user.getId()));
-        result.setPostCount((int) userService.countUserPosts(user.getId()));
+        result.setTopicCount(user.getTopicCount());
+        result.setPostCount(user.getPostCount());
         return result;
     }
 
-    private String createExcerpt(String content, int maxLength) {
-        if (content == null || content.isEmpty()) {
-            return "";
-        }
-        if (content.length() <= maxLength) {
-            return content;
+    private static final class RankedPage<T> {
+        private final List<T> entities;
+        private final float[] scores;
+        private final String nextCursor;
+
+        private RankedPage(List<T> entities, float[] scores, String nextCursor) {
+            this.entities = entities;
+            this.scores = scores;
+            this.nextCursor = nextCursor;
         }
-        return content.substring(0, maxLength) + "...";
     }
 }
-
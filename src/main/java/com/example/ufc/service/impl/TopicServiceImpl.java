@@ -1,28 +1,57 @@
 package com.example.ufc.service.impl;
 
+import com.example.ufc.dto.CategoryStatsDto;
+import com.example.ufc.dto.RecentTopicDto;
+import com.example.ufc.dto.TopicTotalsDto;
+import com.example.ufc.dto.TopicViewDto;
+import com.example.ufc.entity.Post;
 import com.example.ufc.entity.Topic;
 import com.example.ufc.entity.TopicCategory;
 import com.example.ufc.entity.User;
+import com.example.ufc.event.TopicEvent;
+import com.example.ufc.repository.CommentRepository;
 import com.example.ufc.repository.TopicRepository;
+import com.example.ufc.search.TextSearchBackend;
 import com.example.ufc.service.TopicService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
 @Service
 @Transactional
 public class TopicServiceImpl implements TopicService {
 
     private final TopicRepository topicRepository;
+    private final TextSearchBackend textSearchBackend;
+    private final CommentRepository commentRepository;
+    private final TopicViewCounter viewCounter;
+    private final TopicViewDeduplicator viewDeduplicator;
+    private final UserCounters userCounters;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public TopicServiceImpl(TopicRepository topicRepository) {
+    public TopicServiceImpl(TopicRepository topicRepository, CommentRepository commentRepository,
+                            TextSearchBackend textSearchBackend, TopicViewCounter viewCounter,
+                            TopicViewDeduplicator viewDeduplicator, UserCounters userCounters,
+                            ApplicationEventPublisher eventPublisher) {
         this.topicRepository = topicRepository;
+        this.commentRepository = commentRepository;
+        this.textSearchBackend = textSearchBackend;
+        this.viewCounter = viewCounter;
+        this.viewDeduplicator = viewDeduplicator;
+        this.userCounters = userCounters;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -37,14 +66,25 @@ public class TopicServiceImpl implements TopicService {
         return topicRepository.findById(id);
     }
 
+    /**
+     * As {@link #findById}, with the author and last poster loaded for display.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Topic> findByIdWithAuthors(Long id) {
+        return topicRepository.findWithAuthorsById(id);
+    }
+
     @Override
     public Topic save(Topic topic) {
-        return topicRepository.save(topic);
+        Topic savedTopic = topicRepository.save(topic);
+        eventPublisher.publishEvent(new TopicEvent(TopicEvent.Type.UPDATED, savedTopic));
+        return savedTopic;
     }
 
     @Override
     public void deleteById(Long id) {
-        topicRepository.deleteById(id);
+        delete(id);
     }
 
     @Override
@@ -71,19 +111,113 @@ public class TopicServiceImpl implements TopicService {
         return topicRepository.countAllTopics();
     }
 
+    // List read models: projections straight from the query, with buffered views added as for entities
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TopicViewDto> findTopicViews(Pageable pageable) {
+        return topicRepository.findTopicViews(pageable).map(this::withPendingViews);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TopicViewDto> findTopicViewsByCategory(TopicCategory category, Pageable pageable) {
+        return topicRepository.findTopicViewsByCategory(category, pageable).map(this::withPendingViews);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TopicViewDto> findTopicViewsByAuthor(Long authorId, Pageable pageable) {
+        return topicRepository.findTopicViewsByAuthorId(authorId, pageable).map(this::withPendingViews);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RecentTopicDto> getRecentTopicViews(int limit) {
+        List<RecentTopicDto> topics = topicRepository.findRecentTopicViews(PageRequest.of(0, limit));
+        topics.forEach(topic -> topic.setViewCount(
+                (int) (topic.getViewCount() + viewCounter.pendingViews(topic.getId()))));
+        return topics;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TopicViewDto> getAllTopicViews(Pageable pageable) {
+        return topicRepository.findAllTopicViewsByCreatedAtDesc(pageable).map(this::withPendingViews);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TopicViewDto> getTopicViewsByCategory(String category, Pageable pageable) {
+        return topicRepository.findTopicViewsByCategoryByCreatedAtDesc(
+                TopicCategory.valueOf(category.toUpperCase()), pageable).map(this::withPendingViews);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TopicTotalsDto getTopicTotals() {
+        return topicRepository.findTopicTotals();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TopicTotalsDto getTopicTotalsByCategory(String category) {
+        return topicRepository.findTopicTotalsByCategory(TopicCategory.valueOf(category.toUpperCase()));
+    }
+
+    /**
+     * Search backends return entities, so these are mapped here. The stored count is mapped and buffered
+     * views are added as for the other lists, so views buffered since the topic was loaded are included.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TopicViewDto> searchTopicViews(String search, Pageable pageable) {
+        return textSearchBackend.searchTopics(search, pageable)
+                .map(topic -> new TopicViewDto(topic.getId(), topic.getTitle(), topic.getCategory(),
+                        topic.getStoredViewCount(), topic.getReplyCount(), topic.getIsPinned(), topic.getIsLocked(),
+                        topic.getCreatedAt(), topic.getLastPostAt(), topic.getAuthor().getUsername(),
+                        topic.getLastPostUser() != null ? topic.getLastPostUser().getUsername() : null))
+                .map(this::withPendingViews);
+    }
+
+    private TopicViewDto withPendingViews(TopicViewDto topic) {
+        topic.setViewCount((int) (topic.getViewCount() + viewCounter.pendingViews(topic.getId())));
+        return topic;
+    }
+
     @Override
     public Topic createTopic(String title, String content, TopicCategory category, User author) {
         Topic topic = new Topic(title, content, category, author);
-        return topicRepository.save(topic);
+        Topic savedTopic = topicRepository.save(topic);
+        userCounters.topicCreated(author.getId());
+        eventPublisher.publishEvent(new TopicEvent(TopicEvent.Type.CREATED, savedTopic));
+        return savedTopic;
+    }
+
+    /**
+     * Repeat views by the same viewer are dropped by {@link TopicViewDeduplicator}; the rest are buffered
+     * in memory and written in batches by {@link TopicViewCounter}. No database access here.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void incrementViewCount(Long topicId, String viewer) {
+        if (viewDeduplicator.firstView(viewer, topicId)) {
+            viewCounter.increment(topicId);
+        }
+    }
+
+    /**
+     * Counts a new reply and moves the last post forward in one {@code UPDATE}; see
+     * {@link TopicRepository#recordReply}. Runs in the caller's transaction.
+     */
+    @Override
+    public void recordReply(Long topicId, User author, LocalDateTime postedAt) {
+        topicRepository.recordReply(topicId, author.getId(), postedAt);
     }
 
     @Override
-    public void incrementViewCount(Long topicId) {
-        Optional<Topic> topicOpt = topicRepository.findById(topicId);
-        topicOpt.ifPresent(topic -> {
-            topic.incrementViewCount();
-            topicRepository.save(topic);
-        });
+    public void removeReply(Long topicId) {
+        topicRepository.removeReply(topicId);
     }
 
     // Admin methods implementation
@@ -121,7 +255,7 @@ public class TopicServiceImpl implements TopicService {
     @Override
     @Transactional(readOnly = true)
     public List<Topic> searchTopics(String search) {
-        return topicRepository.searchByTitleOrContent(search);
+        return textSearchBackend.searchTopics(search);
     }
 
     @Override
@@ -134,37 +268,74 @@ public class TopicServiceImpl implements TopicService {
     public void pinTopic(Long id) {
         Topic topic = topicRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Topic not found with id: " + id));
+        boolean changed = !Boolean.TRUE.equals(topic.getIsPinned());
         topic.setPinned(true);
         topicRepository.save(topic);
+        if (changed) {
+            eventPublisher.publishEvent(new TopicEvent(TopicEvent.Type.PINNED, topic));
+        }
     }
 
     @Override
     public void unpinTopic(Long id) {
         Topic topic = topicRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Topic not found with id: " + id));
+        boolean changed = Boolean.TRUE.equals(topic.getIsPinned());
         topic.setPinned(false);
         topicRepository.save(topic);
+        if (changed) {
+            eventPublisher.publishEvent(new TopicEvent(TopicEvent.Type.UNPINNED, topic));
+        }
     }
 
     @Override
     public void lockTopic(Long id) {
         Topic topic = topicRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Topic not found with id: " + id));
+        boolean changed = !Boolean.TRUE.equals(topic.getIsLocked());
         topic.setLocked(true);
         topicRepository.save(topic);
+        if (changed) {
+            eventPublisher.publishEvent(new TopicEvent(TopicEvent.Type.LOCKED, topic));
+        }
     }
 
     @Override
     public void unlockTopic(Long id) {
         Topic topic = topicRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Topic not found with id: " + id));
+        boolean changed = Boolean.TRUE.equals(topic.getIsLocked());
         topic.setLocked(false);
         topicRepository.save(topic);
+        if (changed) {
+            eventPublisher.publishEvent(new TopicEvent(TopicEvent.Type.UNLOCKED, topic));
+        }
     }
 
     @Override
     public void deleteTopic(Long id) {
-        topicRepository.deleteById(id);
+        delete(id);
+    }
+
+    private void delete(Long id) {
+        Optional<Topic> topicOpt = topicRepository.findById(id);
+        if (topicOpt.isEmpty()) {
+            return;
+        }
+        Topic topic = topicOpt.get();
+        // The cascade loads the posts to remove them anyway; collect them for the statistics, the
+        // authors' counters and the search index. Comments are counted in one query.
+        long comments = commentRepository.countByTopicId(id);
+        List<Long> posts = new ArrayList<>();
+        Map<Long, Integer> postsByAuthor = new HashMap<>();
+        for (Post post : topic.getPosts()) {
+            posts.add(post.getId());
+            postsByAuthor.merge(post.getAuthor().getId(), 1, Integer::sum);
+        }
+        topicRepository.delete(topic);
+        userCounters.topicDeleted(topic.getAuthor().getId());
+        postsByAuthor.forEach(userCounters::postsDeleted);
+        eventPublisher.publishEvent(new TopicEvent(TopicEvent.Type.DELETED, topic, posts, comments));
     }
 
     @Override
@@ -172,8 +343,10 @@ public class TopicServiceImpl implements TopicService {
     public java.util.Map<String, Long> getTopicCountByCategory() {
         java.util.Map<String, Long> categoryCounts = new java.util.HashMap<>();
         for (TopicCategory category : TopicCategory.values()) {
-            long count = topicRepository.countByCategory(category);
-            categoryCounts.put(category.name(), count);
+            categoryCounts.put(category.name(), 0L);
+        }
+        for (CategoryStatsDto stats : topicRepository.findCategoryStats()) {
+            categoryCounts.put(stats.getCategory().name(), stats.getTopicCount());
         }
         return categoryCounts;
     }
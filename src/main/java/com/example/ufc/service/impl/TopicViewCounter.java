@@ -0,0 +1,96 @@
+package com.example.ufc.service.impl;
+
+import com.example.ufc.entity.PendingTopicViews;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for topic view counts. Views are counted in memory, one striped counter per
+ * topic so concurrent views of a hot topic don't contend, and a scheduled flush writes all of them
+ * with one batched {@code UPDATE ... SET view_count = view_count + ?}. Reads add the views that are
+ * not yet in the database (see {@link #pendingViews}), so counts stay current.
+ * <p>
+ * Counters are kept once created; there is at most one per topic viewed since startup.
+ */
+@Component
+public class TopicViewCounter implements PendingTopicViews {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicViewCounter.class);
+
+    private static final String UPDATE_VIEW_COUNT = "UPDATE topics SET view_count = view_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    private final Map<Long, LongAdder> counters = new ConcurrentHashMap<>();
+    // Drained by the running flush but not committed yet; still counted as pending until then
+    private final Map<Long, Long> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TopicViewCounter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public void increment(Long topicId) {
+        counters.computeIfAbsent(topicId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Views of the topic counted in memory but not yet written to {@code topics.view_count}.
+     */
+    @Override
+    public long pendingViews(Long topicId) {
+        LongAdder counter = counters.get(topicId);
+        long pending = counter != null ? counter.sum() : 0;
+        return pending + inFlight.getOrDefault(topicId, 0L);
+    }
+
+    @Scheduled(fixedDelayString = "${topic.views.flush-interval:5000}")
+    public synchronized void flush() {
+        List<Object[]> updates = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : counters.entrySet()) {
+            // Per-cell get-and-reset: a concurrent view lands either in this flush or the next one
+            long views = entry.getValue().sumThenReset();
+            if (views > 0) {
+                inFlight.put(entry.getKey(), views);
+                updates.add(new Object[]{views, entry.getKey()});
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        try {
+            transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_VIEW_COUNT, updates));
+        } catch (DataAccessException | TransactionException e) {
+            // Nothing was committed; keep the views for the next flush
+            logger.error("Could not flush {} topic view counts, retrying on the next flush", updates.size(), e);
+            for (Object[] update : updates) {
+                counters.computeIfAbsent((Long) update[1], id -> new LongAdder()).add((Long) update[0]);
+            }
+        } finally {
+            inFlight.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.ufc.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drops repeat views of a topic by the same viewer (reloads, crawlers) before they reach
+ * {@link TopicViewCounter}. Seen (viewer, topic) pairs go into a Bloom filter; two filters are kept
+ * and the older one is discarded every rotation interval, so a repeat is suppressed for between one
+ * and two intervals. Memory is fixed at two filters of {@code topic.views.dedup-bits} bits however
+ * many viewers there are; once a filter fills up, false positives drop some genuine first views.
+ */
+@Component
+public class TopicViewDeduplicator {
+
+    private static final int HASH_FUNCTIONS = 4;
+
+    private final int bits;
+
+    // [0] receives new views, [1] is the previous interval's filter; replaced as a pair on rotation
+    private volatile BloomFilter[] filters;
+
+    @Autowired
+    public TopicViewDeduplicator(@Value("${topic.views.dedup-bits:8388608}") int bits) {
+        this.bits = bits;
+        this.filters = new BloomFilter[]{new BloomFilter(bits), new BloomFilter(bits)};
+    }
+
+    /**
+     * Records the view and returns whether it should be counted, i.e. the viewer hasn't viewed
+     * the topic recently (or a false positive says so).
+     *
+     * @param viewer stable key for the viewer, e.g. username, session ID or IP address
+     */
+    public boolean firstView(String viewer, Long topicId) {
+        long hash = mix(fnv1a(viewer) ^ mix(topicId));
+        BloomFilter[] current = filters;
+        if (current[1].mightContain(hash)) {
+            return false;
+        }
+        return current[0].add(hash);
+    }
+
+    @Scheduled(fixedRateString = "${topic.views.dedup-interval:900000}",
+            initialDelayString = "${topic.views.dedup-interval:900000}")
+    public void rotate() {
+        filters = new BloomFilter[]{new BloomFilter(bits), filters[0]};
+    }
+
+    private static long fnv1a(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // MurmurHash3 finalizer: spreads every input bit over the whole word
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final int bits;
+
+        private BloomFilter(int bits) {
+            this.words = new AtomicLongArray((bits + 63) / 64);
+            this.bits = words.length() * 64;
+        }
+
+        boolean mightContain(long hash) {
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = bit(hash, i);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Sets the hash's bits and returns whether any of them was clear, i.e. the hash was not present.
+         */
+        boolean add(long hash) {
+            boolean added = false;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = bit(hash, i);
+                long mask = 1L << bit;
+                long previous = words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+                added |= (previous & mask) == 0;
+            }
+            return added;
+        }
+
+        // Double hashing: probe i is h1 + i * h2 (Kirsch and Mitzenmacher)
+        private int bit(long hash, int i) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            return Math.floorMod(h1 + i * h2, bits);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.ufc.service.impl;
+
+import com.example.ufc.repository.UserRepository;
+import com.example.ufc.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Maintains the denormalized {@code topic_count}, {@code post_count} and {@code reputation} columns of
+ * users. Every change is a relative {@code UPDATE ... SET x = x + ?} in the caller's transaction, so it
+ * commits or rolls back with the topic or post it belongs to and concurrent writers never lose updates.
+ * <p>
+ * A scheduled pass compares the counters with the actual rows in batches of users and adds the
+ * difference, for changes made outside the services (e.g. SQL run by hand). Reputation is moved by the
+ * same weights as the counts it is earned for, so points from other sources are kept.
+ */
+@Component
+public class UserCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCounters.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+
+    @Autowired
+    public UserCounters(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                        @Value("${users.counters.reconcile-batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void topicCreated(Long authorId) {
+        userRepository.adjustCounters(authorId, 1, 0, Constants.REPUTATION_NEW_TOPIC);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void topicDeleted(Long authorId) {
+        userRepository.adjustCounters(authorId, -1, 0, -Constants.REPUTATION_NEW_TOPIC);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void postCreated(Long authorId) {
+        userRepository.adjustCounters(authorId, 0, 1, Constants.REPUTATION_NEW_POST);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void postsDeleted(Long authorId, int posts) {
+        userRepository.adjustCounters(authorId, 0, -posts, -posts * Constants.REPUTATION_NEW_POST);
+    }
+
+    /**
+     * Walks all users in id order, one transaction per batch; runs at startup and then periodically.
+     * Counts are read together with the stored values and only the difference is written, so a topic
+     * or post created meanwhile is not counted twice.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${users.counters.reconcile-interval:3600000}",
+            fixedDelayString = "${users.counters.reconcile-interval:3600000}")
+    public synchronized void reconcile() {
+        long afterId = 0;
+        int repaired = 0;
+        while (true) {
+            long from = afterId;
+            BatchResult batch = transaction.execute(status -> reconcileBatch(from));
+            repaired += batch.repaired;
+            if (batch.lastId == null) {
+                break;
+            }
+            afterId = batch.lastId;
+        }
+        if (repaired > 0) {
+            logger.warn("Repaired topic/post counters of {} users", repaired);
+        }
+    }
+
+    private BatchResult reconcileBatch(long afterId) {
+        List<Object[]> rows = userRepository.findCounterRows(afterId, PageRequest.of(0, batchSize));
+        int repaired = 0;
+        for (Object[] row : rows) {
+            Long userId = (Long) row[0];
+            int topics = (int) ((Long) row[3] - (Integer) row[1]);
+            int posts = (int) ((Long) row[4] - (Integer) row[2]);
+            if (topics != 0 || posts != 0) {
+                userRepository.adjustCounters(userId, topics, posts,
+                        topics * Constants.REPUTATION_NEW_TOPIC + posts * Constants.REPUTATION_NEW_POST);
+                repaired++;
+            }
+        }
+        Long lastId = rows.size() < batchSize ? null : (Long) rows.get(rows.size() - 1)[0];
+        return new BatchResult(lastId, repaired);
+    }
+
+    private static final class BatchResult {
+        private final Long lastId;
+        private final int repaired;
+
+        private BatchResult(Long lastId, int repaired) {
+            this.lastId = lastId;
+            this.repaired = repaired;
+        }
+    }
+}
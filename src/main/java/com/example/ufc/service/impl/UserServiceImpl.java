@@ -3,11 +3,13 @@ package com.example.ufc.service.impl;
 import com.example.ufc.dto.UserRegistrationDto;
 import com.example.ufc.entity.Role;
 import com.example.ufc.entity.User;
+import com.example.ufc.event.UserEvent;
 import com.example.ufc.exception.UserAlreadyExistsException;
+import com.example.ufc.mapper.UserMapper;
 import com.example.ufc.repository.UserRepository;
 import com.example.ufc.service.UserService;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -26,13 +28,16 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, ModelMapper modelMapper) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, UserMapper userMapper,
+                           ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -62,12 +67,16 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User save(User user) {
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        // Anything may have changed here, including the username or role
+        eventPublisher.publishEvent(new UserEvent(UserEvent.Type.UPDATED, savedUser, true));
+        return savedUser;
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(this::delete);
     }
 
     @Override
@@ -96,11 +105,12 @@ public class UserServiceImpl implements UserService {
             throw new UserAlreadyExistsException("email", "Email is already registered");
         }
 
-        User user = modelMapper.map(registrationDto, User.class);
+        User user = userMapper.fromRegistration(registrationDto);
         setDefaultUserProperties(user, registrationDto.getPassword());
 
         User savedUser = userRepository.save(user);
         logger.info("New user registered: {}", savedUser.getUsername());
+        eventPublisher.publishEvent(new UserEvent(UserEvent.Type.REGISTERED, savedUser));
 
         return savedUser;
     }
@@ -116,19 +126,9 @@ public class UserServiceImpl implements UserService {
     public User updateProfile(User user, String bio, String avatarUrl) {
         user.setBio(bio);
         user.setAvatarUrl(avatarUrl);
-        return userRepository.save(user);
-    }
-
-    @Override
-    @Transactional(readOnly = true)
-    public long countUserTopics(Long userId) {
-        return userRepository.countTopicsByUserId(userId);
-    }
-
-    @Override
-    @Transactional(readOnly = true)
-    public long countUserPosts(Long userId) {
-        return userRepository.countPostsByUserId(userId);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserEvent(UserEvent.Type.UPDATED, savedUser));
+        return savedUser;
     }
 
     // Admin methods implementation
@@ -171,8 +171,8 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<User> getAllUsers() {
-        return userRepository.findAllByOrderByCreatedAtDesc();
+    public Page<User> getAllUsers(Pageable pageable) {
+        return userRepository.findAllByOrderByCreatedAtDesc(pageable);
     }
 
     @Override
@@ -183,20 +183,20 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<User> searchUsers(String search) {
-        return userRepository.searchByUsernameOrEmail(search);
+    public Page<User> searchUsers(String search, Pageable pageable) {
+        return userRepository.searchByUsernameOrEmail(search, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<User> getUsersByRole(String role) {
-        return userRepository.findByRole(Role.valueOf(role.toUpperCase()));
+    public Page<User> getUsersByRole(String role, Pageable pageable) {
+        return userRepository.findByRoleOrderByCreatedAtDesc(Role.valueOf(role.toUpperCase()), pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<User> getBannedUsers() {
-        return userRepository.findByIsActiveFalse();
+    public Page<User> getBannedUsers(Pageable pageable) {
+        return userRepository.findByIsActiveFalseOrderByCreatedAtDesc(pageable);
     }
 
     @Override
@@ -210,6 +210,9 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void updateUserByAdmin(Long id, com.example.ufc.dto.UserUpdateDto userUpdateDto) {
         User user = getUserById(id);
+        boolean wasActive = Boolean.TRUE.equals(user.getIsActive());
+        String oldUsername = user.getUsername();
+        Role oldRole = user.getRole();
 
         // Check if username is being changed and if it's already taken
         if (!user.getUsername().equals(userUpdateDto.getUsername()) &&
@@ -237,33 +240,49 @@ public class UserServiceImpl implements UserService {
 
         userRepository.save(user);
         logger.info("User {} updated by admin", user.getUsername());
+        boolean active = Boolean.TRUE.equals(user.getIsActive());
+        UserEvent.Type type = wasActive == active ? UserEvent.Type.UPDATED
+                : active ? UserEvent.Type.UNBANNED : UserEvent.Type.BANNED;
+        boolean identityChanged = !oldUsername.equals(user.getUsername()) || oldRole != user.getRole();
+        eventPublisher.publishEvent(new UserEvent(type, user, identityChanged));
     }
 
     @Override
     @Transactional
     public void banUser(Long id) {
         User user = getUserById(id);
+        boolean changed = Boolean.TRUE.equals(user.getIsActive());
         user.setEnabled(false);
         userRepository.save(user);
         logger.info("User {} has been banned", user.getUsername());
+        if (changed) {
+            eventPublisher.publishEvent(new UserEvent(UserEvent.Type.BANNED, user));
+        }
     }
 
     @Override
     @Transactional
     public void unbanUser(Long id) {
         User user = getUserById(id);
+        boolean changed = !Boolean.TRUE.equals(user.getIsActive());
         user.setEnabled(true);
         userRepository.save(user);
         logger.info("User {} has been unbanned", user.getUsername());
+        if (changed) {
+            eventPublisher.publishEvent(new UserEvent(UserEvent.Type.UNBANNED, user));
+        }
     }
 
     @Override
     @Transactional
     public void deleteUser(Long id) {
-        User user = getUserById(id);
-        String username = user.getUsername();
+        delete(getUserById(id));
+    }
+
+    private void delete(User user) {
         userRepository.delete(user);
-        logger.info("User {} has been deleted", username);
+        logger.info("User {} has been deleted", user.getUsername());
+        eventPublisher.publishEvent(new UserEvent(UserEvent.Type.DELETED, user));
     }
 
     @Override
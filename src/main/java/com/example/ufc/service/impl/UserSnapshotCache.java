@@ -0,0 +1,86 @@
+package com.example.ufc.service.impl;
+
+import com.example.ufc.event.UserEvent;
+import com.example.ufc.repository.UserRepository;
+import com.example.ufc.service.CurrentUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link CurrentUser} snapshots by username, so resolving the signed-in user doesn't cost a SELECT per
+ * request. Bounded, least recently used first out, and entries expire after a TTL. Any change to a
+ * user (profile, admin edit, ban, removal) evicts its entry once the change commits.
+ * <p>
+ * A load that races with such a change is not stored, so an old snapshot cannot outlive the eviction.
+ */
+@Component
+public class UserSnapshotCache {
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final Map<String, Entry> entries;
+    // Bumped on every eviction; a load that started before the latest bump may be stale
+    private long generation;
+
+    @Autowired
+    public UserSnapshotCache(UserRepository userRepository,
+                             @Value("${users.snapshot-cache.max-size:10000}") int maxSize,
+                             @Value("${users.snapshot-cache.ttl:60000}") long ttlMillis) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserSnapshotCache.this.maxSize;
+            }
+        };
+    }
+
+    public Optional<CurrentUser> get(String username) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(username);
+            if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+                return Optional.of(entry.user);
+            }
+            loadGeneration = generation;
+        }
+
+        // Loaded outside the lock; concurrent misses for the same user may each load it
+        Optional<CurrentUser> user = userRepository.findByUsername(username).map(CurrentUser::new);
+        user.ifPresent(loaded -> {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(username, new Entry(loaded, System.currentTimeMillis() + ttlMillis));
+                }
+            }
+        });
+        return user;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserEvent(UserEvent event) {
+        generation++;
+        // Keyed by username, which an admin edit may have changed, so match on id
+        entries.values().removeIf(entry -> entry.user.getId().equals(event.getUserId()));
+    }
+
+    private static final class Entry {
+        private final CurrentUser user;
+        private final long expiresAt;
+
+        private Entry(CurrentUser user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -15,6 +15,9 @@ public final class Constants {
     public static final int MAX_PAGE_SIZE = 100;
     public static final int SEARCH_PAGE_SIZE = 15;
     public static final int ADMIN_PAGE_SIZE = 25;
+    public static final int SEARCH_SUGGESTION_LIMIT = 5;
+    public static final int TOPIC_POSTS_PAGE_SIZE = 20;
+    public static final int PROFILE_PAGE_SIZE = 10;
 
     // Validation
     public static final int USERNAME_MIN_LENGTH = 3;
@@ -0,0 +1,66 @@
+package com.example.ufc.util;
+
+import com.example.ufc.entity.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * The verified claims of an API token: everything needed to authenticate a request without loading the user.
+ */
+public final class JwtPrincipal {
+
+    private final Long userId;
+    private final String username;
+    private final Role role;
+    private final boolean active;
+    private final long issuedAt;
+    private final long expiresAt;
+    private final List<GrantedAuthority> authorities;
+
+    public JwtPrincipal(Long userId, String username, Role role, boolean active, long issuedAt, long expiresAt) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.active = active;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Issue time in epoch milliseconds (whole seconds, as stored in the token).
+     */
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
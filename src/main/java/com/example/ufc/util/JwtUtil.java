@@ -1,65 +1,73 @@
-
 package com.example.ufc.util;
 
+import com.example.ufc.entity.Role;
+import com.example.ufc.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Function;
 
+/**
+ * Issues and verifies API tokens. Tokens carry the user's id, role and active state as claims, so a
+ * verified token is enough to authenticate a request. The key and parser are built once; both are
+ * immutable and thread-safe.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
-
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String ACTIVE_CLAIM = "active";
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(SECRET_KEY.getBytes())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final long expirationMillis;
 
-    public String generateToken(String username) {
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, username);
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration:36000000}") long expirationMillis) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.expirationMillis = expirationMillis;
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    public String generateToken(User user) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-                .signWith(SignatureAlgorithm.HS256, SECRET_KEY.getBytes())
+                .subject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .claim(ACTIVE_CLAIM, Boolean.TRUE.equals(user.getIsActive()))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expirationMillis))
+                .signWith(key, Jwts.SIG.HS256)
                 .compact();
     }
 
-    public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+    /**
+     * Checks the signature and expiry and reads the claims, in one parse.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     * @throws IllegalArgumentException if a claim is missing or malformed (e.g. a token issued before
+     *                                  claims were added)
+     */
+    public JwtPrincipal parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Boolean active = claims.get(ACTIVE_CLAIM, Boolean.class);
+        if (userId == null || role == null || active == null
+                || claims.getIssuedAt() == null || claims.getExpiration() == null) {
+            throw new IllegalArgumentException("Token is missing claims");
+        }
+        return new JwtPrincipal(userId, claims.getSubject(), Role.valueOf(role), active,
+                claims.getIssuedAt().getTime(), claims.getExpiration().getTime());
     }
 }
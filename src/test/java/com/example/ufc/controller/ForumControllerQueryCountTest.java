@@ -0,0 +1,189 @@
+package com.example.ufc.controller;
+
+import com.example.ufc.entity.Comment;
+import com.example.ufc.entity.Post;
+import com.example.ufc.entity.Topic;
+import com.example.ufc.entity.TopicCategory;
+import com.example.ufc.entity.User;
+import com.example.ufc.repository.CommentRepository;
+import com.example.ufc.repository.PostRepository;
+import com.example.ufc.repository.TopicRepository;
+import com.example.ufc.repository.UserRepository;
+import com.example.ufc.search.SearchIndex;
+import com.example.ufc.service.TopicService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Forum and admin pages must render in a fixed number of SQL statements, however many rows they show.
+ * Every topic and post has its own author, so a lazy load per row would show up in the counts.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ForumControllerQueryCountTest {
+
+	private static final int TOPICS = 12;
+	private static final int POSTS = 15;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TopicRepository topicRepository;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private CommentRepository commentRepository;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private SearchIndex searchIndex;
+
+	private Statistics statistics;
+	private Long topicId;
+
+	@BeforeAll
+	void createForum() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < TOPICS + POSTS; i++) {
+			users.add(userRepository.save(new User("counter" + i, "counter" + i + "@ufcbg.com", "secret", "Query", "Counter")));
+		}
+
+		for (int i = 0; i < TOPICS; i++) {
+			Topic topic = new Topic("Тема за броене " + i, "Съдържание на темата " + i, TopicCategory.GENERAL_UFC, users.get(i));
+			topic.setLastPostUser(users.get(TOPICS + i));
+			topicId = topicRepository.save(topic).getId();
+		}
+
+		Topic topic = topicRepository.findById(topicId).orElseThrow();
+		for (int i = 0; i < POSTS; i++) {
+			Post post = new Post();
+			post.setContent("Отговор номер " + i);
+			post.setTopic(topic);
+			post.setAuthor(users.get(TOPICS + i));
+			postRepository.save(post);
+			commentRepository.save(new Comment("Коментар номер " + i, post, users.get(i % TOPICS)));
+		}
+	}
+
+	@Test
+	void forumIndexUsesFixedNumberOfStatements() throws Exception {
+		long small = countStatements(get("/forum").param("size", "2"));
+		long large = countStatements(get("/forum").param("size", String.valueOf(TOPICS)));
+
+		assertThat(large).isEqualTo(small);
+		// topics page, page count; the total topic count is kept in memory
+		assertThat(large).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void categoryPageUsesFixedNumberOfStatements() throws Exception {
+		long small = countStatements(get("/forum/category/GENERAL_UFC").param("size", "2"));
+		long large = countStatements(get("/forum/category/GENERAL_UFC").param("size", String.valueOf(TOPICS)));
+
+		assertThat(large).isEqualTo(small);
+		// topics page, page count
+		assertThat(large).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void topicPageUsesFixedNumberOfStatements() throws Exception {
+		// topic with its authors, one page of posts with their authors
+		assertThat(countStatements(get("/forum/topic/{id}", topicId))).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	@WithMockUser(username = "counter0")
+	void signedInTopicPageResolvesUserFromCache() throws Exception {
+		countStatements(get("/forum/topic/{id}", topicId));
+		// topic, one page of posts; the signed-in user comes from the snapshot cache
+		assertThat(countStatements(get("/forum/topic/{id}", topicId))).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void profileTabsUseFixedNumberOfStatements() throws Exception {
+		// user (with its stored topic and post counts), one page of the tab and its count
+		String author = "counter" + TOPICS;
+		assertThat(countStatements(get("/user/profile/{username}", author).param("tab", "topics"))).isLessThanOrEqualTo(3);
+		assertThat(countStatements(get("/user/profile/{username}", author).param("tab", "posts"))).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void adminListsUseFixedNumberOfStatements() throws Exception {
+		// page, page count, header totals
+		assertThat(countStatements(get("/admin/topics"))).isLessThanOrEqualTo(3);
+		assertThat(countStatements(get("/admin/topics").param("category", "GENERAL_UFC"))).isLessThanOrEqualTo(3);
+		assertThat(countStatements(get("/admin/comments"))).isLessThanOrEqualTo(3);
+		// page, page count
+		assertThat(countStatements(get("/admin/users"))).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void searchPagesLoadHitsWithTheirAssociations() throws Exception {
+		// The forum is saved through the repositories, which publish no events for the index
+		searchIndex.rebuild();
+
+		// one page of hits with their authors (and topics)
+		assertThat(countStatements(get("/search").param("q", "отговор").param("type", "posts"))).isEqualTo(1);
+		assertThat(countStatements(get("/search").param("q", "тема броене").param("type", "topics"))).isEqualTo(1);
+	}
+
+	@Test
+	void userSearchReadsStoredCountsInsteadOfCountingPerUser() throws Exception {
+		searchIndex.rebuild();
+
+		// one page of users; their topic and post counts are columns of the user rows
+		assertThat(countStatements(get("/search").param("q", "counter").param("type", "users"))).isEqualTo(1);
+	}
+
+	@Test
+	void homePageIsServedFromSnapshotUntilNextWrite() throws Exception {
+		countStatements(get("/"));
+		assertThat(countStatements(get("/"))).isZero();
+
+		User author = userRepository.findByUsername("counter0").orElseThrow();
+		topicService.createTopic("Нова тема за началната страница", "Съдържание", TopicCategory.OFF_TOPIC, author);
+
+		assertThat(countStatements(get("/"))).isPositive();
+		assertThat(countStatements(get("/"))).isZero();
+	}
+
+	private long countStatements(RequestBuilder request) throws Exception {
+		statistics.clear();
+		mockMvc.perform(request).andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+}
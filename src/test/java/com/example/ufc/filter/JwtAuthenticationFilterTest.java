@@ -0,0 +1,81 @@
+package com.example.ufc.filter;
+
+import com.example.ufc.dto.UserUpdateDto;
+import com.example.ufc.entity.User;
+import com.example.ufc.repository.UserRepository;
+import com.example.ufc.service.UserService;
+import com.example.ufc.util.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * API requests are authenticated from the token's claims, without SQL, until the account's tokens are revoked.
+ * There is no API endpoint besides login, so requests go to a missing one: only unauthenticated requests get 403.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Test
+	void tokensAuthenticateWithoutDatabaseUntilBan() throws Exception {
+		User user = userRepository.save(new User("apiclient", "apiclient@ufcbg.com", "secret", "Api", "Client"));
+		String bearer = "Bearer " + jwtUtil.generateToken(user);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		for (int i = 0; i < 3; i++) {
+			statistics.clear();
+			mockMvc.perform(get("/api/ping").header("Authorization", bearer))
+					.andExpect(result -> assertThat(result.getResponse().getStatus()).isNotEqualTo(403));
+			assertThat(statistics.getPrepareStatementCount()).isZero();
+		}
+
+		mockMvc.perform(get("/api/ping").header("Authorization", bearer + "x")).andExpect(status().isForbidden());
+
+		userService.banUser(user.getId());
+		mockMvc.perform(get("/api/ping").header("Authorization", bearer)).andExpect(status().isForbidden());
+	}
+
+	@Test
+	void profileEditsKeepTokensButRenamingRevokesThem() throws Exception {
+		User user = userRepository.save(new User("apieditor", "apieditor@ufcbg.com", "secret", "Api", "Editor"));
+		String bearer = "Bearer " + jwtUtil.generateToken(user);
+
+		userService.updateProfile(user, "Нова биография", null);
+		mockMvc.perform(get("/api/ping").header("Authorization", bearer))
+				.andExpect(result -> assertThat(result.getResponse().getStatus()).isNotEqualTo(403));
+
+		UserUpdateDto update = new UserUpdateDto();
+		update.setUsername("apieditor2");
+		update.setEmail(user.getEmail());
+		update.setBio(user.getBio());
+		userService.updateUserByAdmin(user.getId(), update);
+		mockMvc.perform(get("/api/ping").header("Authorization", bearer)).andExpect(status().isForbidden());
+	}
+}
@@ -0,0 +1,127 @@
+package com.example.ufc.mapper;
+
+import com.example.ufc.dto.PostViewDto;
+import com.example.ufc.dto.TopicViewDto;
+import com.example.ufc.dto.UserProfileDto;
+import com.example.ufc.dto.UserRegistrationDto;
+import com.example.ufc.entity.Post;
+import com.example.ufc.entity.Role;
+import com.example.ufc.entity.Topic;
+import com.example.ufc.entity.TopicCategory;
+import com.example.ufc.entity.User;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hand-written mappers against the reflective ModelMapper they replaced, per mapped row.
+ * Not a unit test; run {@link #main} from the test classpath. The GC profiler reports
+ * allocation per operation as {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+	private final ModelMapper modelMapper = new ModelMapper();
+	private final TopicMapper topicMapper = new TopicMapper();
+	private final PostMapper postMapper = new PostMapper();
+	private final UserMapper userMapper = new UserMapper();
+
+	private Topic topic;
+	private Post post;
+	private User user;
+	private UserRegistrationDto registration;
+
+	@Setup
+	public void createEntities() {
+		user = new User("khabib", "khabib@ufcbg.com", "secret", "Khabib", "Nurmagomedov");
+		user.setId(1L);
+		user.setRole(Role.USER);
+		user.setCreatedAt(LocalDateTime.now());
+		user.setBio("29-0");
+
+		topic = new Topic("Хабиб срещу Конор", "Анализ на двубоя", TopicCategory.FIGHT_ANALYSIS, user);
+		topic.setId(2L);
+		topic.setCreatedAt(LocalDateTime.now());
+
+		post = new Post();
+		post.setId(3L);
+		post.setContent("Хабиб печели с предаване");
+		post.setTopic(topic);
+		post.setAuthor(user);
+		post.setCreatedAt(LocalDateTime.now());
+
+		registration = new UserRegistrationDto();
+		registration.setUsername("conor");
+		registration.setEmail("conor@ufcbg.com");
+		registration.setPassword("secret");
+		registration.setFirstName("Conor");
+		registration.setLastName("McGregor");
+	}
+
+	@Benchmark
+	public TopicViewDto topicModelMapper() {
+		return modelMapper.map(topic, TopicViewDto.class);
+	}
+
+	@Benchmark
+	public TopicViewDto topicMapper() {
+		return topicMapper.toViewDto(topic);
+	}
+
+	@Benchmark
+	public PostViewDto postModelMapper() {
+		return modelMapper.map(post, PostViewDto.class);
+	}
+
+	@Benchmark
+	public PostViewDto postMapper() {
+		return postMapper.toViewDto(post);
+	}
+
+	@Benchmark
+	public UserProfileDto userProfileModelMapper() {
+		return modelMapper.map(user, UserProfileDto.class);
+	}
+
+	@Benchmark
+	public UserProfileDto userProfileMapper() {
+		return userMapper.toProfileDto(user);
+	}
+
+	@Benchmark
+	public User registrationModelMapper() {
+		return modelMapper.map(registration, User.class);
+	}
+
+	@Benchmark
+	public User registrationMapper() {
+		return userMapper.fromRegistration(registration);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(MapperBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
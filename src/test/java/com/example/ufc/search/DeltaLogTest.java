@@ -0,0 +1,86 @@
+package com.example.ufc.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A crash mid-append leaves a torn record at the tail of the log: replay must apply everything before it.
+ */
+class DeltaLogTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replayStopsAtTornRecordAndTruncatesIt() throws IOException {
+		Path path = directory.resolve("posts.1.delta");
+		long intactLength;
+		try (DeltaLog log = DeltaLog.open(path)) {
+			log.appendIndex(1, Map.of("бой", 2.0f), Map.of("бой", new int[]{0, 3, 10, 13}), 100);
+			log.appendRemove(7);
+			log.appendIndex(2, Map.of("реванш", 1.0f), Map.of(), 200);
+			intactLength = Files.size(path);
+			log.appendIndex(3, Map.of("хабиб", 1.0f, "нурмагомедов", 1.0f), Map.of(), 300);
+		}
+		// Cut the last record in the middle of its terms
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.truncate(Files.size(path) - 5);
+		}
+
+		List<String> applied = new ArrayList<>();
+		int replayed = DeltaLog.replay(path, new RecordingTarget(applied));
+
+		assertThat(replayed).isEqualTo(3);
+		assertThat(applied).containsExactly("index 1 {бой=2.0} бой@[0, 3, 10, 13] at 100", "remove 7",
+				"index 2 {реванш=1.0} at 200");
+		assertThat(Files.size(path)).isEqualTo(intactLength);
+
+		// Appends after the replay start on a record boundary
+		try (DeltaLog log = DeltaLog.open(path)) {
+			log.appendRemove(1);
+		}
+		applied.clear();
+		assertThat(DeltaLog.replay(path, new RecordingTarget(applied))).isEqualTo(4);
+		assertThat(applied).last().isEqualTo("remove 1");
+	}
+
+	@Test
+	void missingLogReplaysNothing() throws IOException {
+		List<String> applied = new ArrayList<>();
+		assertThat(DeltaLog.replay(directory.resolve("absent.delta"), new RecordingTarget(applied))).isZero();
+		assertThat(applied).isEmpty();
+	}
+
+	private static final class RecordingTarget implements DeltaLog.Target {
+		private final List<String> applied;
+
+		private RecordingTarget(List<String> applied) {
+			this.applied = applied;
+		}
+
+		@Override
+		public void index(long id, Map<String, Float> termFrequencies, Map<String, int[]> termOffsets, long createdAt) {
+			StringBuilder record = new StringBuilder("index " + id + " " + termFrequencies);
+			termOffsets.forEach((term, offsets) -> record.append(' ').append(term).append('@')
+					.append(Arrays.toString(offsets)));
+			applied.add(record.append(" at ").append(createdAt).toString());
+		}
+
+		@Override
+		public void remove(long id) {
+			applied.add("remove " + id);
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package com.example.ufc.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Indexing, ranked paging and persistence of one index, without Spring: terms are fed in already analyzed.
+ */
+class InvertedIndexTest {
+
+	private static final long NOW = 1_700_000_000L;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void indexedDocumentsAreFoundUntilRemoved() {
+		InvertedIndex index = new InvertedIndex();
+		index.index(1, terms("хабиб", "нурмагомедов"), Map.of(), NOW);
+		index.index(2, terms("хабиб", "макгрегър"), Map.of(), NOW);
+		index.index(3, terms("джонс"), Map.of(), NOW);
+
+		assertThat(ids(index.search(List.of("хабиб"), null, 10, NOW))).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(ids(index.search(List.of("хабиб", "макгрегър"), null, 10, NOW))).containsExactly(2L);
+		// Query terms match as prefixes
+		assertThat(ids(index.search(List.of("нурма"), null, 10, NOW))).containsExactly(1L);
+
+		index.remove(2);
+		assertThat(index.size()).isEqualTo(2);
+		assertThat(ids(index.search(List.of("хабиб"), null, 10, NOW))).containsExactly(1L);
+		assertThat(ids(index.search(List.of("макгрегър"), null, 10, NOW))).isEmpty();
+
+		// Reindexing replaces the previous terms
+		index.index(1, terms("джонс"), Map.of(), NOW);
+		assertThat(ids(index.search(List.of("хабиб"), null, 10, NOW))).isEmpty();
+		assertThat(ids(index.search(List.of("джонс"), null, 10, NOW))).containsExactlyInAnyOrder(1L, 3L);
+	}
+
+	@Test
+	void cursorPagesVisitEveryHitOnceInRankOrder() {
+		InvertedIndex index = new InvertedIndex();
+		Set<Long> expected = new HashSet<>();
+		for (long id = 1; id <= 103; id++) {
+			// Few distinct frequencies and ages, so many hits tie on score and are ordered by id
+			Map<String, Float> frequencies = new HashMap<>();
+			frequencies.put("бой", 1.0f + id % 3);
+			frequencies.put("id" + id, 1.0f);
+			index.index(id, frequencies, Map.of(), NOW - (id % 4) * 86_400);
+			expected.add(id);
+		}
+
+		List<Long> seen = new ArrayList<>();
+		List<Float> scores = new ArrayList<>();
+		SearchCursor cursor = null;
+		int pages = 0;
+		do {
+			// The reference time moves on between pages; the cursor keeps the first page's
+			SearchHits page = index.search(List.of("бой"), cursor, 10, NOW + pages * 3_600L);
+			for (int i = 0; i < page.size(); i++) {
+				seen.add(page.id(i));
+				scores.add(page.score(i));
+			}
+			cursor = page.nextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(11);
+		assertThat(seen).doesNotHaveDuplicates();
+		assertThat(new HashSet<>(seen)).isEqualTo(expected);
+		for (int i = 1; i < seen.size(); i++) {
+			boolean ordered = scores.get(i) < scores.get(i - 1)
+					|| (scores.get(i).equals(scores.get(i - 1)) && seen.get(i) < seen.get(i - 1));
+			assertThat(ordered).as("hit %d ranks after hit %d", i, i - 1).isTrue();
+		}
+	}
+
+	@Test
+	void snapshotAndDeltaLogSurviveReload() throws IOException {
+		InvertedIndex index = new InvertedIndex(directory, "topics");
+		index.index(1, terms("хабиб", "бой"), Map.of("бой", new int[]{6, 9}), NOW);
+		index.index(2, terms("джонс", "бой"), Map.of("бой", new int[]{0, 3}), NOW);
+		index.snapshot();
+		assertThat(index.hasPendingChanges()).isFalse();
+
+		// After the snapshot: kept only in the delta log
+		index.index(3, terms("бой", "реванш"), Map.of("бой", new int[]{10, 13}), NOW);
+		index.remove(2);
+		SearchHits before = index.search(List.of("бой"), null, 10, NOW);
+		index.close();
+
+		InvertedIndex reloaded = new InvertedIndex(directory, "topics");
+		assertThat(reloaded.load()).isTrue();
+		assertThat(reloaded.size()).isEqualTo(2);
+		assertThat(reloaded.hasPendingChanges()).isTrue();
+
+		SearchHits after = reloaded.search(List.of("бой"), null, 10, NOW);
+		assertThat(ids(after)).isEqualTo(ids(before)).containsExactlyInAnyOrder(1L, 3L);
+		for (int i = 0; i < after.size(); i++) {
+			assertThat(after.score(i)).isEqualTo(before.score(i));
+		}
+		assertThat(reloaded.matchOffsets(1, List.of("бой"), false)).containsExactly(6, 9);
+		assertThat(reloaded.matchOffsets(3, List.of("бой"), false)).containsExactly(10, 13);
+
+		// A second round trip through a fresh segment keeps the same state
+		reloaded.snapshot();
+		reloaded.close();
+		InvertedIndex compacted = new InvertedIndex(directory, "topics");
+		assertThat(compacted.load()).isTrue();
+		assertThat(ids(compacted.search(List.of("бой"), null, 10, NOW))).isEqualTo(ids(before));
+		assertThat(compacted.hasPendingChanges()).isFalse();
+		compacted.close();
+	}
+
+	@Test
+	void loadWithoutSnapshotLeavesIndexEmpty() throws IOException {
+		InvertedIndex index = new InvertedIndex(directory, "users");
+		assertThat(index.load()).isFalse();
+		assertThat(index.size()).isZero();
+	}
+
+	private static Map<String, Float> terms(String... terms) {
+		Map<String, Float> frequencies = new HashMap<>();
+		for (String term : terms) {
+			frequencies.merge(term, 1.0f, Float::sum);
+		}
+		return frequencies;
+	}
+
+	private static List<Long> ids(SearchHits hits) {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < hits.size(); i++) {
+			ids.add(hits.id(i));
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,129 @@
+package com.example.ufc.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The automaton must report exactly what a brute-force edit distance over the whole dictionary reports,
+ * although it reuses rows between neighbouring terms and skips past dead prefixes.
+ */
+class LevenshteinAutomatonTest {
+
+	@Test
+	void allowedEditsGrowWithTermLength() {
+		assertThat(LevenshteinAutomaton.maxEditsFor("бо")).isZero();
+		assertThat(LevenshteinAutomaton.maxEditsFor("бой")).isEqualTo(1);
+		assertThat(LevenshteinAutomaton.maxEditsFor("хабиб")).isEqualTo(1);
+		assertThat(LevenshteinAutomaton.maxEditsFor("khabib")).isEqualTo(2);
+	}
+
+	@Test
+	void intersectMatchesBruteForceOverRandomDictionaries() {
+		Random random = new Random(20231118);
+		// A small alphabet makes near misses, shared prefixes and prefix expansions common;
+		// the last character exercises the successor of a prefix ending in Character.MAX_VALUE
+		String alphabet = "abcd" + Character.MAX_VALUE;
+
+		for (int round = 0; round < 50; round++) {
+			TreeSet<String> dictionary = new TreeSet<>();
+			while (dictionary.size() < 300) {
+				dictionary.add(randomTerm(random, alphabet, 1, 9));
+			}
+
+			for (int q = 0; q < 20; q++) {
+				// Half the queries are dictionary terms, so exact and one-edit matches are always present
+				String query = q % 2 == 0
+						? randomTerm(random, alphabet, 1, 8)
+						: dictionary.ceiling(randomTerm(random, alphabet, 1, 8));
+				if (query == null) {
+					query = dictionary.first();
+				}
+				int maxEdits = LevenshteinAutomaton.maxEditsFor(query);
+
+				assertThat(intersect(dictionary, query, maxEdits))
+						.as("query %s", query)
+						.isEqualTo(bruteForce(dictionary, query, maxEdits));
+			}
+		}
+	}
+
+	@Test
+	void deadPrefixesAreSkippedWithoutVisitingTheirTerms() {
+		Random random = new Random(7);
+		TreeSet<String> dictionary = new TreeSet<>();
+		// Several terms share each short prefix, so skipping a dead prefix skips several lookups
+		while (dictionary.size() < 5000) {
+			dictionary.add(randomTerm(random, "abcdefgh", 6, 10));
+		}
+		String query = "hagbdefa";
+
+		AtomicInteger lookups = new AtomicInteger();
+		Map<String, Integer> matches = new TreeMap<>();
+		new LevenshteinAutomaton(query, 2).intersect(from -> {
+			lookups.incrementAndGet();
+			return dictionary.ceiling(from);
+		}, matches::put);
+
+		assertThat(matches).isEqualTo(bruteForce(dictionary, query, 2));
+		assertThat(lookups.get()).isLessThan(dictionary.size() / 2);
+	}
+
+	private static Map<String, Integer> intersect(TreeSet<String> dictionary, String query, int maxEdits) {
+		Map<String, Integer> matches = new TreeMap<>();
+		new LevenshteinAutomaton(query, maxEdits).intersect(dictionary::ceiling, (term, distance) -> {
+			Integer previous = matches.put(term, distance);
+			assertThat(previous).as("%s reported twice", term).isNull();
+		});
+		return matches;
+	}
+
+	private static Map<String, Integer> bruteForce(TreeSet<String> dictionary, String query, int maxEdits) {
+		Map<String, Integer> matches = new TreeMap<>();
+		for (String term : dictionary) {
+			if (term.startsWith(query)) {
+				matches.put(term, 0);
+			} else {
+				int distance = editDistance(term, query);
+				if (distance <= maxEdits) {
+					matches.put(term, distance);
+				}
+			}
+		}
+		return matches;
+	}
+
+	private static int editDistance(String a, String b) {
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			for (int j = 1; j <= b.length(); j++) {
+				int substitute = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+				current[j] = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[b.length()];
+	}
+
+	private static String randomTerm(Random random, String alphabet, int minLength, int maxLength) {
+		int length = minLength + random.nextInt(maxLength - minLength + 1);
+		StringBuilder term = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			term.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return term.toString();
+	}
+}
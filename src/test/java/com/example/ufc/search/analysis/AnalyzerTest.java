@@ -0,0 +1,37 @@
+package com.example.ufc.search.analysis;
+
+import com.example.ufc.config.SearchConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The search analyzer as configured for indexing and querying: inflected and transliterated spellings of
+ * a word must end up as the same term, or a search for one misses documents written with the other.
+ */
+class AnalyzerTest {
+
+	private final Analyzer analyzer = new SearchConfig().searchAnalyzer();
+
+	@Test
+	void inflectedFormsStemToTheSameTerm() {
+		assertThat(analyzer.terms("боеве")).isEqualTo(analyzer.terms("боевете")).hasSize(1);
+		assertThat(analyzer.terms("Боевете")).isEqualTo(analyzer.terms("боеве"));
+	}
+
+	@Test
+	void cyrillicAndLatinSpellingsFoldToTheSameTerm() {
+		List<String> cyrillic = analyzer.terms("Хабиб");
+		assertThat(cyrillic).containsExactly("habib");
+		assertThat(analyzer.terms("Khabib")).isEqualTo(cyrillic);
+		assertThat(analyzer.terms("Habib")).isEqualTo(cyrillic);
+		assertThat(analyzer.terms("ХАБИБ")).isEqualTo(cyrillic);
+	}
+
+	@Test
+	void stopwordsAreDroppedAndWordsKeepTheirOrder() {
+		assertThat(analyzer.terms("Хабиб и Khabib")).containsExactly("habib", "habib");
+	}
+}
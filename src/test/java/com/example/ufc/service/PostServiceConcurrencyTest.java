@@ -0,0 +1,88 @@
+package com.example.ufc.service;
+
+import com.example.ufc.entity.Topic;
+import com.example.ufc.entity.TopicCategory;
+import com.example.ufc.entity.User;
+import com.example.ufc.repository.PostRepository;
+import com.example.ufc.repository.TopicRepository;
+import com.example.ufc.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replies to one topic from many threads at once: every reply must be counted on the topic and on its
+ * author, with no lost updates.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PostServiceConcurrencyTest {
+
+	private static final int THREADS = 16;
+	private static final int REPLIES_PER_THREAD = 25;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TopicRepository topicRepository;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Test
+	void concurrentRepliesAreAllCounted() throws Exception {
+		List<User> authors = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			authors.add(userRepository.save(new User("replier" + i, "replier" + i + "@ufcbg.com", "secret", "Stress", "Test")));
+		}
+		Topic topic = topicService.createTopic("Гореща тема на живо", "Съдържание", TopicCategory.UPCOMING_EVENTS, authors.get(0));
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < THREADS; i++) {
+				User author = authors.get(i);
+				results.add(executor.submit(() -> {
+					start.await();
+					for (int j = 0; j < REPLIES_PER_THREAD; j++) {
+						postService.createPost("Отговор " + j + " от " + author.getUsername(), topic, author);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> result : results) {
+				result.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Topic reloaded = topicRepository.findWithAuthorsById(topic.getId()).orElseThrow();
+		assertThat(reloaded.getReplyCount()).isEqualTo(THREADS * REPLIES_PER_THREAD);
+		assertThat(postRepository.countByTopicId(topic.getId())).isEqualTo(THREADS * REPLIES_PER_THREAD);
+		assertThat(reloaded.getLastPostUser()).isNotNull();
+		for (User author : authors) {
+			assertThat(userRepository.findById(author.getId()).orElseThrow().getPostCount()).isEqualTo(REPLIES_PER_THREAD);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.example.ufc.service;
+
+import com.example.ufc.entity.Topic;
+import com.example.ufc.entity.TopicCategory;
+import com.example.ufc.entity.User;
+import com.example.ufc.repository.UserRepository;
+import com.example.ufc.service.impl.UserCounters;
+import com.example.ufc.util.Constants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The topic and post counters and reputation of users move with every topic and post written through the
+ * services, and the reconcile pass repairs counters changed behind their back.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserCountersTest {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TopicService topicService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private UserCounters userCounters;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void countersFollowTopicAndPostWrites() {
+		User topicAuthor = userRepository.save(new User("counted1", "counted1@ufcbg.com", "secret", "Counted", "One"));
+		User postAuthor = userRepository.save(new User("counted2", "counted2@ufcbg.com", "secret", "Counted", "Two"));
+
+		Topic topic = topicService.createTopic("Тема за броячите", "Съдържание", TopicCategory.OFF_TOPIC, topicAuthor);
+		postService.createPost("Първи отговор", topic, postAuthor);
+		postService.createPost("Втори отговор", topic, postAuthor);
+
+		assertCounters("counted1", 1, 0, Constants.REPUTATION_NEW_TOPIC);
+		assertCounters("counted2", 0, 2, 2 * Constants.REPUTATION_NEW_POST);
+
+		topicService.deleteTopic(topic.getId());
+
+		assertCounters("counted1", 0, 0, 0);
+		assertCounters("counted2", 0, 0, 0);
+	}
+
+	@Test
+	void reconcileRepairsSkewedCounters() {
+		User author = userRepository.save(new User("skewed", "skewed@ufcbg.com", "secret", "Skewed", "Counters"));
+		Topic topic = topicService.createTopic("Тема с изкривени броячи", "Съдържание", TopicCategory.OFF_TOPIC, author);
+		postService.createPost("Отговор", topic, author);
+		int earned = Constants.REPUTATION_NEW_TOPIC + Constants.REPUTATION_NEW_POST;
+
+		// As if SQL run by hand had lost one topic and added five posts; reputation from elsewhere is kept
+		jdbcTemplate.update("UPDATE users SET topic_count = 0, post_count = 6, reputation = ? WHERE id = ?",
+				earned + 100 - Constants.REPUTATION_NEW_TOPIC + 5 * Constants.REPUTATION_NEW_POST, author.getId());
+
+		userCounters.reconcile();
+
+		assertCounters("skewed", 1, 1, earned + 100);
+	}
+
+	private void assertCounters(String username, int topics, int posts, int reputation) {
+		User user = userRepository.findByUsername(username).orElseThrow();
+		assertThat(user.getTopicCount()).isEqualTo(topics);
+		assertThat(user.getPostCount()).isEqualTo(posts);
+		assertThat(user.getReputation()).isEqualTo(reputation);
+	}
+}